@@ -0,0 +1,123 @@
+package cn.com.platform.framework.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * ベンチマーク用のシート作成。
+ * <p>
+ * 修正一覧と同じく B～N 列を使用し、1 行目をヘッダ行とする。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+final class BenchmarkSheets {
+
+  /** シート名。 */
+  static final String SHEET = "data";
+
+  /** 使用する列（B～N）。 */
+  static final String[] COLUMNS = {"B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N"};
+
+  /**
+   * 行を追加するベンチマークの 1 回の計測で追加する行数。
+   * シートは最大 1,000,000 行＋ヘッダで、Excel の上限（1,048,576 行）まで 48,575 行しか追加できないため、その範囲内とする。
+   */
+  static final int APPEND_BATCH = 10000;
+
+  /** セル位置の表の最大件数。 */
+  private static final int MAX_ADDRESSES = 4096;
+
+  private BenchmarkSheets() {
+  }
+
+  /**
+   * ヘッダ行だけのテンプレートを作成する。
+   *
+   * @return xlsx のバイト配列
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  static byte[] template() throws IOException {
+    try (XSSFWorkbook workbook = new XSSFWorkbook();
+        ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      workbook.createSheet(SHEET).createRow(0).createCell(1).setCellValue("No");
+      workbook.write(out);
+      return out.toByteArray();
+    }
+  }
+
+  /**
+   * 指定行数のデータを持つ ExcelMakeFile を作成する。
+   *
+   * @param lngRows 行数
+   * @return ExcelMakeFile
+   * @throws IOException 読み込みでエラーが発生した場合スロー
+   */
+  static ExcelMakeFile filled(int lngRows) throws IOException {
+    ExcelMakeFile file = new ExcelMakeFile(template());
+    for (int row = 2; row <= lngRows + 1; row++) {
+      fillRow(file, row);
+    }
+    return file;
+  }
+
+  /**
+   * 指定行数のデータを持つ ExcelMakeSFile を作成する（ウィンドウ外の行は一時ファイルに出力済み）。
+   *
+   * @param lngRows 行数
+   * @return ExcelMakeSFile
+   * @throws IOException 読み込みでエラーが発生した場合スロー
+   */
+  static ExcelMakeSFile filledStreaming(int lngRows) throws IOException {
+    ExcelMakeSFile file = new ExcelMakeSFile(template());
+    for (int row = 2; row <= lngRows + 1; row++) {
+      fillRow(file, row);
+    }
+    return file;
+  }
+
+  /**
+   * 1 行分の値を設定する（B:番号、C:クラス、D:内容、J:方針）。
+   *
+   * @param file ExcelMakeFile
+   * @param row 行番号（1 開始）
+   */
+  static void fillRow(ExcelMakeFile file, int row) {
+    file.setCellValue(SHEET, "B" + row, row - 1);
+    file.setCellValue(SHEET, "C" + row, "com.example.Caller" + row);
+    file.setCellValue(SHEET, "D" + row, "com.example.Caller" + row + "  (line " + row + ")\n  -> callee()");
+    file.setCellValue(SHEET, "J" + row, "廃止予定");
+  }
+
+  /**
+   * 1 行分の値を設定する（B:番号、C:クラス、D:内容、J:方針）。
+   *
+   * @param file ExcelMakeSFile
+   * @param row 行番号（1 開始）
+   */
+  static void fillRow(ExcelMakeSFile file, int row) {
+    file.setCellValue(SHEET, "B" + row, row - 1);
+    file.setCellValue(SHEET, "C" + row, "com.example.Caller" + row);
+    file.setCellValue(SHEET, "D" + row, "com.example.Caller" + row + "  (line " + row + ")\n  -> callee()");
+    file.setCellValue(SHEET, "J" + row, "廃止予定");
+  }
+
+  /**
+   * シート全体に散らばったセル位置の表を作成する（最大 4096 件）。
+   *
+   * @param strColumn 列
+   * @param lngRows データ行数
+   * @return A1形式のセル位置
+   */
+  static String[] addresses(String strColumn, int lngRows) {
+    int count = Math.min(lngRows, MAX_ADDRESSES);
+    int step = Math.max(1, lngRows / count);
+    String[] addresses = new String[count];
+    for (int i = 0; i < count; i++) {
+      addresses[i] = strColumn + (2 + i * step);
+    }
+    return addresses;
+  }
+}
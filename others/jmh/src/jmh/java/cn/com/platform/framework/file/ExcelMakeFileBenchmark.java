@@ -0,0 +1,149 @@
+package cn.com.platform.framework.file;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import cn.com.platform.framework.common.exception.SystemException;
+
+/**
+ * ExcelMakeFile（XSSF）のベンチマーク。
+ * <p>
+ * 指定行数のシートに対して、シート全体に散らばった既存セルへ値やスタイルを設定する。
+ * セルの上書きのみのため、計測中にシートの行数は変わらない。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExcelMakeFileBenchmark {
+
+  /** シートの行数。 */
+  @Param({"1000", "100000", "1000000"})
+  public int rows;
+
+  private ExcelMakeFile file;
+  private String[] addresses;
+  private int cursor;
+
+  private final Date date = new Date();
+  private final BigDecimal decimal = new BigDecimal("12345.678");
+
+  /**
+   * シートを作成する。
+   *
+   * @throws IOException 読み込みでエラーが発生した場合スロー
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    file = BenchmarkSheets.filled(rows);
+    addresses = BenchmarkSheets.addresses("E", rows);
+  }
+
+  /**
+   * ワークブックを閉じる。
+   *
+   * @throws IOException エラーが発生した場合スロー
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    file.workbook.close();
+  }
+
+  private String next() {
+    String address = addresses[cursor];
+    cursor = cursor + 1 == addresses.length ? 0 : cursor + 1;
+    return address;
+  }
+
+  // ---------- setCellValue ----------
+
+  @Benchmark
+  public void setCellValueString() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), "com.example.Caller.method()");
+  }
+
+  @Benchmark
+  public void setCellValueMultiline() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), "com.example.Caller  (line 1)\n  -> callee()");
+  }
+
+  @Benchmark
+  public void setCellValueDataDiv() throws SystemException {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), "12345", ExcelFile.DATA_SET_TYPE_NUMBER);
+  }
+
+  @Benchmark
+  public void setCellValueDate() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), date);
+  }
+
+  @Benchmark
+  public void setCellValueDateFormat() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), date, "yyyy/MM/dd");
+  }
+
+  @Benchmark
+  public void setCellValueLong() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), 12345L);
+  }
+
+  @Benchmark
+  public void setCellValueDouble() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), 123.45d);
+  }
+
+  @Benchmark
+  public void setCellValueBigDecimal() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), decimal);
+  }
+
+  // ---------- スタイル ----------
+
+  @Benchmark
+  public void setBorder() {
+    file.setBorder(BenchmarkSheets.SHEET, next(), BorderStyle.THIN);
+  }
+
+  @Benchmark
+  public void setAlignment() {
+    file.setAlignment(BenchmarkSheets.SHEET, next(), HorizontalAlignment.LEFT);
+  }
+
+  @Benchmark
+  public void setVerticalAlignment() {
+    file.setVerticalAlignment(BenchmarkSheets.SHEET, next(), VerticalAlignment.TOP);
+  }
+
+  // ---------- シート全体 ----------
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void autoSizeColumn() throws SystemException {
+    file.autoSizeColumn(file.getSheet(BenchmarkSheets.SHEET), BenchmarkSheets.COLUMNS.length);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public byte[] getBytes() throws SystemException {
+    return file.getBytes();
+  }
+}
@@ -0,0 +1,103 @@
+package cn.com.platform.framework.file;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ExcelMakeFile / ExcelMakeSFile の行操作（copyRow / insertRange）のベンチマーク。
+ * <p>
+ * insertRange は行を挿入してシートが大きくなるため、イテレーションごとにシートを作り直す。
+ * SXSSF は出力済みの行を移動できないため insertRange は XSSF のみ。
+ * copyRowStreaming は 1 回ごとに行を追加するため、行数の上限を超えないよう 1 回の計測（SingleShotTime）で
+ * {@link BenchmarkSheets#APPEND_BATCH} 行だけコピーする。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExcelMakeFileRowBenchmark {
+
+  /** シートの行数。 */
+  @Param({"1000", "100000", "1000000"})
+  public int rows;
+
+  private ExcelMakeFile file;
+  private ExcelMakeSFile sfile;
+  private int cursor;
+  private int sfileRow;
+
+  /**
+   * シートを作成する。
+   *
+   * @throws IOException 読み込みでエラーが発生した場合スロー
+   */
+  @Setup(Level.Iteration)
+  public void setUp() throws IOException {
+    file = BenchmarkSheets.filled(rows);
+    sfile = BenchmarkSheets.filledStreaming(rows);
+    sfileRow = rows + 1; // 最後に出力した行（0 開始）
+    cursor = 0;
+  }
+
+  /**
+   * ワークブックを閉じ、SXSSF の一時ファイルを削除する。
+   *
+   * @throws IOException エラーが発生した場合スロー
+   */
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    file.workbook.close();
+    sfile.workbook.close();
+  }
+
+  /**
+   * 既存の行を別の既存の行へコピーする（行数は変わらない）。
+   */
+  @Benchmark
+  public void copyRow() {
+    int source = 1 + cursor % rows;
+    int target = 1 + (cursor + rows / 2) % rows;
+    cursor++;
+    file.copyRow(BenchmarkSheets.SHEET, source, source, target, ExcelFile.COPY_VALUE_COPY,
+        ExcelFile.COPY_TARGET_ABUSOLUTE);
+  }
+
+  /**
+   * シートの中央に 1 行挿入する（下の行はすべて移動する）。
+   */
+  @Benchmark
+  public void insertRange() {
+    int middle = 1 + rows / 2;
+    file.insertRange(BenchmarkSheets.SHEET, middle, 1, middle, BenchmarkSheets.COLUMNS.length,
+        BenchmarkSheets.SHEET, middle, 1, ExcelFile.COPY_VALUE_COPY);
+  }
+
+  /**
+   * 最後の行を次の行へコピーする（SXSSF のウィンドウ内）。
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(batchSize = BenchmarkSheets.APPEND_BATCH)
+  @Measurement(batchSize = BenchmarkSheets.APPEND_BATCH)
+  public void copyRowStreaming() {
+    sfile.copyRow(BenchmarkSheets.SHEET, sfileRow, sfileRow, sfileRow + 1, ExcelFile.COPY_VALUE_COPY,
+        ExcelFile.COPY_TARGET_ABUSOLUTE);
+    sfileRow++;
+  }
+}
@@ -0,0 +1,122 @@
+package cn.com.platform.framework.file;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import cn.com.platform.framework.common.exception.SystemException;
+
+/**
+ * ExcelMakeSFile（SXSSF）のベンチマーク。
+ * <p>
+ * SXSSF は出力済みの行に書き込めないため、指定行数のシートの後ろに 1 回ごとに新しい行を追加して値を設定する
+ * （ExcelMakeFileBenchmark の同名メソッドとの比較用）。
+ * 行数の上限を超えないよう、1 回の計測（SingleShotTime）で {@link BenchmarkSheets#APPEND_BATCH} 行を追加し、
+ * イテレーションごとにシートを作り直す。スコアは APPEND_BATCH 回の合計時間。
+ * スタイル設定（setAlignment 等）は呼び出しごとに CellStyle を生成し、ワークブックのスタイル数の上限
+ * （64000）に達するため対象外とする。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(batchSize = BenchmarkSheets.APPEND_BATCH)
+@Measurement(batchSize = BenchmarkSheets.APPEND_BATCH)
+public class ExcelMakeSFileBenchmark {
+
+  /** シートの行数。 */
+  @Param({"1000", "100000", "1000000"})
+  public int rows;
+
+  private ExcelMakeSFile file;
+  private int row;
+
+  private final Date date = new Date();
+  private final BigDecimal decimal = new BigDecimal("12345.678");
+
+  /**
+   * シートを作成する。
+   *
+   * @throws IOException 読み込みでエラーが発生した場合スロー
+   */
+  @Setup(Level.Iteration)
+  public void setUp() throws IOException {
+    file = BenchmarkSheets.filledStreaming(rows);
+    row = rows + 1;
+  }
+
+  /**
+   * SXSSF の一時ファイルを削除する。
+   *
+   * @throws IOException エラーが発生した場合スロー
+   */
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    file.workbook.close();
+  }
+
+  private String next() {
+    return "E" + (++row);
+  }
+
+  // ---------- setCellValue ----------
+
+  @Benchmark
+  public void setCellValueString() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), "com.example.Caller.method()");
+  }
+
+  @Benchmark
+  public void setCellValueDataDiv() throws SystemException {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), "12345", ExcelFile.DATA_SET_TYPE_NUMBER);
+  }
+
+  @Benchmark
+  public void setCellValueDate() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), date);
+  }
+
+  @Benchmark
+  public void setCellValueDateFormat() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), date, "yyyy/MM/dd");
+  }
+
+  @Benchmark
+  public void setCellValueLong() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), 12345L);
+  }
+
+  @Benchmark
+  public void setCellValueDouble() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), 123.45d);
+  }
+
+  @Benchmark
+  public void setCellValueBigDecimal() {
+    file.setCellValue(BenchmarkSheets.SHEET, next(), decimal);
+  }
+
+  // ---------- シート全体 ----------
+
+  @Benchmark
+  @Warmup(batchSize = 1)
+  @Measurement(batchSize = 1)
+  public byte[] getBytes() throws IOException {
+    return file.getBytes();
+  }
+}
@@ -0,0 +1,97 @@
+package cn.com.platform.framework.file;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 修正一覧と同じ形式のレポート作成（テンプレート読込 → N 行出力 → バイト配列）のベンチマーク。
+ * <p>
+ * ExcelMakeFile（XSSF）と ExcelMakeSFile（SXSSF）で同じ処理を行い、時間と割り当て量（-prof gc）を比較する。
+ * B～N 列の罫線スタイルは両方とも 1 回だけ作成して共用する。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ReportWriteBenchmark {
+
+  /** 出力行数。 */
+  @Param({"1000", "100000", "1000000"})
+  public int rows;
+
+  private byte[] template;
+
+  /**
+   * テンプレートを作成する。
+   *
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  @Setup
+  public void setUp() throws IOException {
+    template = BenchmarkSheets.template();
+  }
+
+  @Benchmark
+  public byte[] excelMakeFile() throws Exception {
+    ExcelMakeFile file = new ExcelMakeFile(template);
+    CellStyle style = borderStyle(file.workbook);
+    for (int row = 2; row <= rows + 1; row++) {
+      for (String column : BenchmarkSheets.COLUMNS) {
+        file.setCellStyle(BenchmarkSheets.SHEET, column + row, style);
+      }
+      BenchmarkSheets.fillRow(file, row);
+    }
+    byte[] bytes = file.getBytes();
+    file.workbook.close();
+    return bytes;
+  }
+
+  @Benchmark
+  public byte[] excelMakeSFile() throws IOException {
+    ExcelMakeSFile file = new ExcelMakeSFile(template);
+    CellStyle style = borderStyle(file.workbook);
+    for (int row = 2; row <= rows + 1; row++) {
+      for (String column : BenchmarkSheets.COLUMNS) {
+        file.setCellStyle(BenchmarkSheets.SHEET, column + row, style);
+      }
+      BenchmarkSheets.fillRow(file, row);
+    }
+    byte[] bytes = file.getBytes();
+    file.workbook.close();
+    return bytes;
+  }
+
+  private static CellStyle borderStyle(Workbook workbook) {
+    CellStyle style = workbook.createCellStyle();
+    style.setBorderTop(BorderStyle.THIN);
+    style.setBorderBottom(BorderStyle.THIN);
+    style.setBorderLeft(BorderStyle.THIN);
+    style.setBorderRight(BorderStyle.THIN);
+    style.setAlignment(HorizontalAlignment.LEFT);
+    style.setVerticalAlignment(VerticalAlignment.TOP);
+    style.setWrapText(true);
+    return style;
+  }
+}
@@ -0,0 +1,78 @@
+package cn.com.platform.framework.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ExcelMakeFile / ExcelMakeSFile のフォントの色設定のテスト。
+ */
+class ExcelMakeFileTest {
+
+  private static final short RED = IndexedColors.RED.getIndex();
+
+  /**
+   * 斜体だけが違う 2 つのフォントに同じ色を設定しても、フォントは共有されない。
+   */
+  @Test
+  void setFontColorKeepsItalic() throws Exception {
+    ExcelMakeFile excel = new ExcelMakeFile();
+    excel.workbook.createSheet("S");
+    excel.setCellValue("S", "A1", "plain");
+    excel.setCellValue("S", "A2", "italic");
+    XSSFFont plain = excel.getCreateFont();
+    XSSFFont italic = excel.getCreateFont();
+    italic.setItalic(true);
+    excel.setCellStyle("S", "A1", style(excel, plain));
+    excel.setCellStyle("S", "A2", style(excel, italic));
+
+    excel.setFontColor("S", "A1", RED);
+    excel.setFontColor("S", "A2", RED);
+
+    XSSFFont plainRed = excel.getFont(excel.getCellStyle("S", "A1").getFontIndex());
+    XSSFFont italicRed = excel.getFont(excel.getCellStyle("S", "A2").getFontIndex());
+    assertNotEquals(plainRed.getIndex(), italicRed.getIndex());
+    assertFalse(plainRed.getItalic());
+    assertTrue(italicRed.getItalic());
+    assertEquals(RED, plainRed.getColor());
+    assertEquals(RED, italicRed.getColor());
+    // コピー元のフォントは変更しない
+    assertTrue(italic.getItalic());
+    assertNotEquals(RED, italic.getColor());
+  }
+
+  /**
+   * 同じフォントと色の場合はフォントを共有する。
+   */
+  @Test
+  void setFontColorReusesFont() throws Exception {
+    ExcelMakeFile excel = new ExcelMakeFile();
+    excel.workbook.createSheet("S");
+    excel.setCellValue("S", "A1", "a");
+    excel.setCellValue("S", "A2", "b");
+    XSSFFont italic = excel.getCreateFont();
+    italic.setItalic(true);
+    excel.setCellStyle("S", "A1", style(excel, italic));
+    excel.setCellStyle("S", "A2", style(excel, italic));
+
+    excel.setFontColor("S", "A1", RED);
+    int fonts = excel.workbook.getNumberOfFonts();
+    excel.setFontColor("S", "A2", RED);
+
+    assertEquals(fonts, excel.workbook.getNumberOfFonts());
+    assertEquals(excel.getCellStyle("S", "A1").getFontIndex(), excel.getCellStyle("S", "A2").getFontIndex());
+  }
+
+  private static XSSFCellStyle style(ExcelMakeFile excel, XSSFFont font) {
+    // getCreateStyle() は共有のスタイルを返すため、スタイルを生成する
+    XSSFCellStyle style = excel.workbook.createCellStyle();
+    style.setFont(font);
+    return style;
+  }
+}
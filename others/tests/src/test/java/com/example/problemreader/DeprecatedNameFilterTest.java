@@ -0,0 +1,50 @@
+package com.example.problemreader;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DeprecatedNameFilter 的测试（resources/deprecated-names.txt 的名字表）
+ * 实例成员通过变量、方法的返回值调用时类型名不出现在源码中，这样的编译单元也必须解析。
+ */
+class DeprecatedNameFilterTest {
+
+    private static DeprecatedNameFilter filter;
+
+    @BeforeAll
+    static void load() throws Exception {
+        List<String> keys = DeprecatedNameFilter.load(Paths.get("resources", "deprecated-names.txt"));
+        filter = DeprecatedNameFilter.of(keys, DeprecationIndex.of(keys));
+    }
+
+    private static boolean isCandidate(String source) {
+        return filter.isCandidate(source.toCharArray());
+    }
+
+    @Test
+    void instanceMethodThroughVariable() {
+        // Worker extends Thread：Thread.stop
+        assertTrue(isCandidate("class A { void f(Worker w) { w.stop(); } }"));
+        // Thread.getId
+        assertTrue(isCandidate("class A { long f(Worker w) { return w.getId(); } }"));
+    }
+
+    @Test
+    void instanceMethodThroughCallResult() {
+        // MutableInt.getValue
+        assertTrue(isCandidate("class A { int f(Holder h) { return h.counter().getValue(); } }"));
+    }
+
+    @Test
+    void sameNameNotInMethodSyntax() {
+        // 同名的变量、注释、字符串不算
+        assertFalse(isCandidate("class A { int f(int stop) { return stop; } }"));
+        assertFalse(isCandidate("class A { /* w.stop() */ String s = \"getValue()\"; }"));
+    }
+}
@@ -0,0 +1,2 @@
+call C:\gradle-7.6.5\bin\gradle.bat :jmh:jmh
+pause
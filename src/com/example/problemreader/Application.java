@@ -1,26 +1,34 @@
-package problemreader;
+package com.example.problemreader;
 
 
 import java.io.File;
-import java.lang.reflect.Modifier;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.eclipse.core.resources.IMarker;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
-import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -28,7 +36,6 @@ import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IJavaModelMarker;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
@@ -36,21 +43,9 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
-import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
-import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
-import org.eclipse.jdt.core.dom.FieldDeclaration;
-import org.eclipse.jdt.core.dom.IMethodBinding;
-import org.eclipse.jdt.core.dom.ITypeBinding;
-import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.MethodInvocation;
-import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
-import org.eclipse.jdt.core.dom.Type;
-import org.eclipse.jdt.core.dom.TypeDeclaration;
-
-import cn.com.platform.framework.file.ExcelMakeFile;
 
 /**
  * Eclipse Plugin Application
@@ -61,12 +56,15 @@ import cn.com.platform.framework.file.ExcelMakeFile;
  * - 方法/类/字段均显示修饰符
  */
 public class Application implements IApplication {
-	
-	public ExcelMakeFile excelMakeFile;
-	public XSSFSheet outputSheet;
 
-    // 用于去重，避免重复输出相同信息
-    private final Set<String> reported = new HashSet<>();
+    /** 存放EXCEL报告的目录 */
+    private static final String OUTPUT_DIR = "outputdeprecatedfiles";
+
+    /** 编译错误的移行规则（启动时读取一次） */
+    private MigrationRules rules;
+
+    /** 名字表的文件的预过滤索引（启动时读取一次，不使用预过滤时为 null，使用 classpath 索引时只在索引出错时使用） */
+    private DeprecationIndex prefilterIndex;
 
     @Override
     public Object start(IApplicationContext context) throws Exception {
@@ -75,360 +73,653 @@ public class Application implements IApplication {
         System.out.println("===================================");
         
         String projectPath = Paths.get("C:\\workspace_rcp\\problemreader").toAbsolutePath().toString();
-        excelMakeFile = new ExcelMakeFile(new File(projectPath+"/resources/Spring移行修正一覧.xlsx"));
-        outputSheet =  excelMakeFile.workbook.getSheet("修正一覧");
+        // 模板只读一次，各项目从这份字节数组生成自己的 workbook
+        byte[] template = Files.readAllBytes(Paths.get(projectPath, "resources", "Spring移行修正一覧.xlsx"));
+        rules = MigrationRules.load(ScanOptions.RULES != null ? Paths.get(ScanOptions.RULES)
+                : Paths.get(projectPath, "resources", "migration-rules.tsv"));
+        System.out.println("[Rules] " + rules.size() + " rules");
+        if (ScanOptions.PREFILTER) {
+            prefilterIndex = DeprecationIndex.of(DeprecatedNameFilter.load(ScanOptions.PREFILTER_NAMES != null
+                    ? Paths.get(ScanOptions.PREFILTER_NAMES) : Paths.get(projectPath, "resources", "deprecated-names.txt")));
+            System.out.println("[Prefilter] " + prefilterIndex.filterKeys().size() + " names, "
+                    + prefilterIndex.typeCount() + " types");
+        }
         
+        // 编译单元的扫描线程池（各项目共用），项目的线程池（每个项目独立写自己的 Excel）
+        ForkJoinPool pool = new ForkJoinPool(ScanOptions.PARALLELISM);
+        ExecutorService projectPool = Executors.newFixedThreadPool(ScanOptions.PROJECT_PARALLELISM);
 
         // 遍历工作区所有项目
+        List<Future<?>> futures = new ArrayList<>();
         for (IProject project : root.getProjects()) {
             if (!project.isOpen()) continue;                   // 忽略未打开的项目
             if (!project.hasNature(JavaCore.NATURE_ID)) continue; // 忽略非 Java 项目
-//            if (!"CM00".equals(project.getName())) 
-//            if (!"CM00_3".equals(project.getName())) 
-//            if (!"CM01".equals(project.getName())) 
-//            if (!"CM09".equals(project.getName())) 
-//            if (!"CM09_3".equals(project.getName())) 
-//            if (!"unicorn.cm.entity".equals(project.getName())) 
-//            if (!"unicorn.VM.entity".equals(project.getName())) 
-//            if (!"unicorn3.framework".equals(project.getName())) 
-//            if (!"UnicornVZ3".equals(project.getName())) 
-//            if (!"Unicorn".equals(project.getName())) 
-            if (!"Wildfly_CM00_4_wuxi03".equals(project.getName())) 
-            {
-            	continue;
-            }
+            if (!ScanOptions.includesProject(project.getName())) continue; // 忽略不在对象列表中的项目
 
-            System.out.println("\n[Project] " + project.getName());
-            IJavaProject javaProject = JavaCore.create(project);
+            futures.add(projectPool.submit(() -> {
+                scanProject(project, template, projectPath, pool);
+                return null;
+            }));
+        }
 
-            // 遍历项目中的 source 根路径
-            for (IPackageFragmentRoot pfr : javaProject.getPackageFragmentRoots()) {
-                if (pfr.getKind() != IPackageFragmentRoot.K_SOURCE) continue;
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            projectPool.shutdownNow();
+            pool.shutdown();
+        }
+        return IApplication.EXIT_OK;
+    }
 
-                // 遍历包
-                for (IJavaElement pkg : pfr.getChildren()) {
-                    if (!(pkg instanceof IPackageFragment)) continue;
+    /**
+     * 扫描一个项目，输出该项目的 Excel 报告
+     */
+    private void scanProject(IProject project, byte[] template, String projectPath, ForkJoinPool pool) throws Exception {
+        System.out.println("\n[Project] " + project.getName());
+        IJavaProject javaProject = JavaCore.create(project);
+        List<ICompilationUnit> units = collectUnits(javaProject);
+
+        // 指定的不存在的场合就做成。
+        File reportFolder = new File(projectPath + "/" + OUTPUT_DIR);
+        if (!reportFolder.exists()) {
+            reportFolder.mkdirs();
+        }
 
-                    // 遍历 Java 文件
-                    for (ICompilationUnit unit : ((IPackageFragment) pkg).getCompilationUnits()) {
-                        // 1️⃣ 先输出编译错误信息
-                        reportProblems(unit, javaProject);
+        // 各输出的文件名为 项目名 + 时间 + 扩展名
+        DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+        String fileName = project.getName().concat(df.format(LocalDateTime.now()));
+        ProjectReport report = new ProjectReport(template, Paths.get(projectPath + "/" + OUTPUT_DIR + "/" + fileName));
+
+        // 一次取得项目全部的编译错误
+        ScanStatistics statistics = new ScanStatistics(project.getName());
+        long wall = System.nanoTime();
+        long cpu = ScanStatistics.cpuTime();
+        ProblemMarkerIndex markers = ProblemMarkerIndex.build(project);
+        statistics.add(ScanStatistics.Phase.MARKERS, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu, 0, markers.size());
+        System.out.println("[Markers] " + project.getName() + " : " + markers.size() + " errors");
+
+        // 项目源码中的 deprecated 声明（预过滤的名字表和缓存的指纹都使用）
+        // 源码只在这里读一次：内容哈希（缓存）和源码（预过滤）留给 scanBatch
+        String[] sources = prefilterIndex != null ? new String[units.size()] : null;
+        String[] hashes = ScanOptions.CACHE ? new String[units.size()] : null;
+        List<Declared> declared = List.of();
+        if (prefilterIndex != null || ScanOptions.CACHE) {
+            declared = scanDeclared(pool, units, sources, hashes, statistics);
+        }
 
-                        // 2️⃣ 再解析 AST 输出已弃用 API
-//                        parse(unit);
-                    }
+        // 增量扫描缓存（放在报告目录旁边）
+        ScanCache cache = null;
+        if (ScanOptions.CACHE) {
+            List<String> declarations = new ArrayList<>();
+            for (Declared unit : declared) {
+                if (unit.contentHash() != null) {
+                    declarations.add(unit.path() + "|" + unit.contentHash());
                 }
             }
+            cache = ScanCache.load(Paths.get(projectPath, "outputscancache", project.getName() + ".scancache"), javaProject,
+                    declarations);
+        }
 
-            // 遍历项目中的 source 根路径
-            for (IPackageFragmentRoot pfr : javaProject.getPackageFragmentRoots()) {
-                if (pfr.getKind() != IPackageFragmentRoot.K_SOURCE) continue;
-
-                // 遍历包
-                for (IJavaElement pkg : pfr.getChildren()) {
-                    if (!(pkg instanceof IPackageFragment)) continue;
-
-                    // 遍历 Java 文件
-                    for (ICompilationUnit unit : ((IPackageFragment) pkg).getCompilationUnits()) {
-                        // 1️⃣ 先输出编译错误信息
-//                        reportProblems(unit, javaProject);
-
-                        // 2️⃣ 再解析 AST 输出已弃用 API
-                        parse(unit);
-                    }
+        // 文本预过滤：名字表（classpath 的 deprecated 名字表 / resources 的名字表）+ 项目中 @Deprecated 的声明名
+        DeprecatedNameFilter filter = null;
+        if (prefilterIndex != null) {
+            DeprecationIndex index = prefilterIndex;
+            if (ScanOptions.INDEX) {
+                wall = System.nanoTime();
+                cpu = ScanStatistics.cpuTime();
+                try {
+                    index = openIndex(javaProject, Paths.get(projectPath, "outputdeprecationindex"));
+                    statistics.add(ScanStatistics.Phase.INDEX, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu,
+                            0, index.filterKeys().size());
+                } catch (IOException e) {
+                    System.out.println("[Index] " + project.getName() + " : " + e + " -> names file");
                 }
             }
+            filter = buildFilter(index, declared);
+        }
 
-			String outputDir = "outputdeprecatedfiles"; // 存放EXCEL报告的目录
-
-			// 指定的不存在的场合就做成。
-			File reportFolder = new File(projectPath + "/" + outputDir);
-			if (!reportFolder.exists()) {
-				reportFolder.mkdirs();
-			}
-
-			DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
-//			String fileName = "demo".concat(df.format(LocalDateTime.now()));
-			String fileName = project.getName().concat(df.format(LocalDateTime.now()));
-			fileName = fileName.concat(".xlsx");
-//              String fileName = reportFile.concat(".xlsx");
-			Files.write(Paths.get(projectPath + "/" + outputDir + "/" + fileName), excelMakeFile.getBytes());
-            
-            
+        // 签名格式化的缓存：绑定 key 不包含项目，每个项目一个实例（项目并行扫描）
+        SignatureFormatter formatter = new SignatureFormatter();
+
+        // 扫描线程产生的结果交给写入线程，解析和报告的写入同时进行
+        ReportWriter writer = new ReportWriter(report, project.getName(), statistics);
+        try {
+            scanUnits(pool, units, sources, hashes, markers, cache, filter, formatter, writer, statistics);
+            writer.finish();
+        } catch (Throwable e) {
+            // 失败时也结束写入线程，丢弃全部输出（不留下看起来完整的部分文件，删除 SXSSF 的临时文件）
+            writer.abort();
+            report.abort(e);
+            throw e;
         }
-        return IApplication.EXIT_OK;
+        if (filter != null) {
+            System.out.println("[Prefilter] " + project.getName() + " : " + filter.stats());
+        }
+        if (cache != null) {
+            cache.save();
+            System.out.println("[Cache] " + project.getName() + " : " + cache.hits() + "/" + units.size() + " units replayed");
+        }
+        System.out.println("[Signature cache] " + project.getName() + " : " + formatter.stats());
+        System.out.println("[Dedup] " + project.getName() + " : " + report.dedupStats());
+
+        // 统计：Excel 的「統計」sheet（输出文件之前）和 JSON（包括输出文件的时间）
+        // 失败时丢弃全部输出（保存到一半的文件也删除）
+        try {
+            report.statistics(statistics);
+            wall = System.nanoTime();
+            cpu = ScanStatistics.cpuTime();
+            report.save();
+            statistics.add(ScanStatistics.Phase.SAVE, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu, 0, 0);
+        } catch (Throwable e) {
+            report.abort(e);
+            throw e;
+        }
+        statistics.writeJson(Paths.get(projectPath + "/" + OUTPUT_DIR + "/" + fileName + ".stats.json"));
+        System.out.println("[Statistics] " + statistics.summary());
     }
 
     /**
-     * 使用 ASTParser 解析单个 Java 文件
+     * 按 source 根路径 → 包 → Java 文件的顺序收集编译单元
+     * 这个顺序就是报告的输出顺序
      */
-    private void parse(ICompilationUnit unit) {
-        ASTParser parser = ASTParser.newParser(AST.JLS21);
-        parser.setSource(unit);
-        parser.setResolveBindings(true);     // 开启绑定解析
-        parser.setBindingsRecovery(true);    // 尽量恢复绑定失败
+    private List<ICompilationUnit> collectUnits(IJavaProject javaProject) throws JavaModelException {
+        List<ICompilationUnit> units = new ArrayList<>();
 
-        CompilationUnit cu = (CompilationUnit) parser.createAST(null);
-        cu.accept(new DeprecatedVisitor(cu, unit)); // 使用自定义 Visitor
+        // 遍历项目中的 source 根路径
+        for (IPackageFragmentRoot pfr : javaProject.getPackageFragmentRoots()) {
+            if (pfr.getKind() != IPackageFragmentRoot.K_SOURCE) continue;
+
+            // 遍历包
+            for (IJavaElement pkg : pfr.getChildren()) {
+                if (!(pkg instanceof IPackageFragment)) continue;
+
+                // 遍历 Java 文件
+                units.addAll(Arrays.asList(((IPackageFragment) pkg).getCompilationUnits()));
+            }
+        }
+        return units;
     }
 
     /**
-     * 输出编译错误，通过 IMarker 获取
+     * 建立项目的预过滤（项目源码中 @Deprecated 的声明名加入 index 的名字表）
      */
-    private void reportProblems(ICompilationUnit unit, IJavaProject javaProject) throws CoreException {
-        IMarker[] markers = unit.getResource().findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, true, IResource.DEPTH_INFINITE);
-        if (markers == null) return;
-
-        for (IMarker marker : markers) {
-            Integer severity = (Integer) marker.getAttribute(IMarker.SEVERITY);
-            if (severity == null || severity != IMarker.SEVERITY_ERROR) continue;
+    private static DeprecatedNameFilter buildFilter(DeprecationIndex index, List<Declared> declared) {
+        Set<String> keys = new LinkedHashSet<>(index.filterKeys());
+        for (Declared unit : declared) {
+            keys.addAll(unit.names());
+        }
+        return DeprecatedNameFilter.of(keys, index);
+    }
 
-            int line = marker.getAttribute(IMarker.LINE_NUMBER, -1);
-            String message = marker.getAttribute(IMarker.MESSAGE, "unknown error");
+    /**
+     * 一个编译单元中的 deprecated 声明
+     *
+     * @param names 声明的名字表的行
+     * @param contentHash 提到 Deprecated / deprecated 时为内容哈希，否则为 null
+     */
+    private record Declared(String path, Set<String> names, String contentHash) {
+    }
 
-            // 避免重复输出
-            String key = unit.getElementName() + ":" + line + " -> " + message;
-            if (!reported.add(key)) continue;
+    /**
+     * 读取全部编译单元的源码，收集 deprecated 声明
+     * 每个源文件只读一次，内容哈希和源码放进 hashes / sources（按 units 的下标，scanBatch 使用）
+     *
+     * @param sources 预过滤用的源码，不使用预过滤时为 null
+     * @param hashes 缓存用的内容哈希，不使用缓存时为 null
+     */
+    private static List<Declared> scanDeclared(ForkJoinPool pool, List<ICompilationUnit> units, String[] sources,
+            String[] hashes, ScanStatistics statistics) throws CoreException, InterruptedException {
+        List<Integer> indexes = new ArrayList<>(units.size());
+        for (int i = 0; i < units.size(); i++) {
+            indexes.add(i);
+        }
+        return scanAll(pool, indexes, i -> {
+            long wall = System.nanoTime();
+            long cpu = ScanStatistics.cpuTime();
+            ICompilationUnit unit = units.get(i);
+            UnitSource source = UnitSource.read(unit, hashes != null);
+            if (sources != null) {
+                // String 保存（ASCII 的源码 1 字符 1 字节），预过滤之后释放
+                sources[i] = new String(source.text());
+            }
+            if (hashes != null) {
+                hashes[i] = source.contentHash();
+            }
+            boolean mentions = DeprecatedNameFilter.mentionsDeprecated(source.text());
+            Declared declared = new Declared(unit.getPath().toString(), DeprecatedNameFilter.declaredNames(source.text()),
+                    mentions ? source.contentHash() : null);
+            statistics.add(ScanStatistics.Phase.PREFILTER, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu, 0, 0);
+            return declared;
+        });
+    }
 
-            try {
-                // 获取顶层类全限定名
-                IType[] types = unit.getAllTypes();
-                String fullName = "unknown";
-                if (types != null && types.length > 0) {
-                    IType type = types[0];
-                    fullName = type.getFullyQualifiedName(); // 包含 package
+    /**
+     * 读取的一个编译单元的源码
+     *
+     * @param contentHash 源文件的内容哈希（不需要时为 null）
+     */
+    private record UnitSource(char[] text, String contentHash) {
+
+        /**
+         * 读取源文件一次，同时得到源码和内容哈希
+         * 内容哈希是文件的字节的哈希，读取不到文件时从 Java model 取得源码（哈希按 UTF-8 计算）
+         */
+        static UnitSource read(ICompilationUnit unit, boolean hash) throws JavaModelException {
+            if (unit.getResource() instanceof IFile file && file.getLocation() != null) {
+                byte[] content = null;
+                try {
+                    content = Files.readAllBytes(file.getLocation().toPath());
+                } catch (IOException e) {
+                    // 读取不到时从 Java model 取得
                 }
-                System.out.println(fullName + "  (line " + line + ")");
-                System.out.println("  -> ERROR: " + message);
-                
-                // 输出到excel模板
-                int sheetLastRowNum =  outputSheet.getLastRowNum()+2;
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "B" + sheetLastRowNum, sheetLastRowNum -4);
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "C" + sheetLastRowNum, fullName);
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "D" + sheetLastRowNum, fullName + "  (line " + line + ")" + "\n  -> ERROR: " + message);
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "J" + sheetLastRowNum, "削除");
-
-                Pattern p = Pattern.compile("The import\\s+(javax\\.[\\w\\.]+)\\s+cannot be resolved");
-                Matcher m = p.matcher(message);
-                if (m.find()) {
-                    String javaxPackage = m.group(1);
-                    String jakartaPackage = javaxPackage.replaceFirst("javax\\.", "jakarta.");
-                    System.out.println(javaxPackage + " -> " + jakartaPackage);
-                    excelMakeFile.setCellValue(outputSheet.getSheetName(), "K" + sheetLastRowNum, javaxPackage + "\n  -> " + jakartaPackage);
+                if (content != null) {
+                    String contentHash = hash ? ScanCache.contentHash(content) : null;
+                    try {
+                        return new UnitSource(DeprecatedNameFilter.decode(content, Charset.forName(file.getCharset())),
+                                contentHash);
+                    } catch (CoreException | IllegalArgumentException e) {
+                        // 编码取得不到时从 Java model 取得源码
+                        return new UnitSource(unit.getSource().toCharArray(), contentHash);
+                    }
                 }
-
-				setBorderStyle(excelMakeFile, outputSheet.getSheetName(), sheetLastRowNum);
-				
-            } catch (JavaModelException e) {
-                System.out.println(unit.getElementName() + "  (line " + line + ")");
-                System.out.println("  -> ERROR: " + message);
             }
+            String source = unit.getSource();
+            return new UnitSource(source.toCharArray(),
+                    hash ? ScanCache.contentHash(source.getBytes(StandardCharsets.UTF_8)) : null);
         }
     }
 
     /**
-     * AST Visitor，用于检测 deprecated 使用
+     * 取得项目 classpath 的 deprecated 名字表（jar 没有变化时使用缓存目录中的文件）
+     * 库的 jar、class 文件夹，以及依赖的项目的输出文件夹（ClasspathLocations）。
+     * JDK 9 以后的 JRE 在 classpath 上是 lib/jrt-fs.jar，从这里找到 JDK 读取 jrt
      */
-    private class DeprecatedVisitor extends ASTVisitor {
-        private final CompilationUnit cu;
-        private final ICompilationUnit unit;
-
-        DeprecatedVisitor(CompilationUnit cu, ICompilationUnit unit) {
-            this.cu = cu;
-            this.unit = unit;
+    private static DeprecationIndex openIndex(IJavaProject javaProject, Path cacheDir) throws IOException, JavaModelException {
+        List<Path> libraries = new ArrayList<>();
+        Path javaHome = null;
+        for (Path location : ClasspathLocations.of(javaProject)) {
+            if (location.getFileName() != null && "jrt-fs.jar".equals(location.getFileName().toString())) {
+                javaHome = location.getParent().getParent();
+            } else {
+                libraries.add(location);
+            }
         }
+        return DeprecationIndex.open(libraries, javaHome, cacheDir);
+    }
+
+    /**
+     * 扫描处理
+     */
+    @FunctionalInterface
+    private interface ScanTask<T, R> {
+        R scan(T item) throws CoreException, InterruptedException;
+    }
 
-        // ---------- 调用 deprecated 方法 ----------
-        @Override
-        public boolean visit(MethodInvocation node) {
-            IMethodBinding mb = node.resolveMethodBinding();
-            if (mb != null && mb.isDeprecated()) {
-                report(node, resolveCaller(node), formatMethod(mb));
+    /**
+     * 用线程池并行扫描
+     * 返回值与 items 的顺序一致，所以多次运行的输出顺序不变
+     */
+    private static <T, R> List<R> scanAll(ForkJoinPool pool, List<T> items, ScanTask<T, R> task)
+            throws CoreException, InterruptedException {
+        if (ScanOptions.PARALLELISM <= 1) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(task.scan(item));
             }
-            return super.visit(node);
+            return results;
         }
 
-        // ---------- new 已弃用类 / 调用 deprecated 构造 ----------
-        @Override
-        public boolean visit(ClassInstanceCreation node) {
-            IMethodBinding mb = node.resolveConstructorBinding();
-            ITypeBinding tb = node.resolveTypeBinding();
-            if (tb != null && tb.isDeprecated()) {
-                report(node, resolveCaller(node), formatTypeWithKeyword(tb));
+        try {
+            // 有序的并行流：toList() 保持 encounter order
+            return pool.submit(() -> items.parallelStream().map(item -> {
+                try {
+                    return task.scan(item);
+                } catch (CoreException | InterruptedException e) {
+                    throw new ScanFailure(e);
+                }
+            }).toList()).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause != null && !(cause instanceof ScanFailure)) {
+                cause = cause.getCause();
             }
-            if (mb != null && mb.isDeprecated()) {
-                report(node, resolveCaller(node), formatMethod(mb));
+            if (cause != null && cause.getCause() instanceof CoreException ce) {
+                throw ce;
             }
-            return super.visit(node);
+            if (cause != null && cause.getCause() instanceof InterruptedException ie) {
+                throw ie;
+            }
+            throw new IllegalStateException(e.getCause());
         }
+    }
 
-        // ---------- 类声明，继承/实现 ----------
-        @Override
-        public boolean visit(TypeDeclaration node) {
-            ITypeBinding tb = node.resolveBinding();
-            if (tb != null && tb.isDeprecated()) {
-                report(node, resolveCaller(node), formatTypeWithKeyword(tb));
+    /**
+     * 用线程池的 PARALLELISM 个线程按 items 的顺序领取并处理
+     * 序号小的 item 总是先被领取，所以 ReportWriter 等待的下一个序号总是在处理中（submit() 等待不会死锁）。
+     * 一个 item 失败时不再领取新的 item，调用 onFailure 之后抛出异常。
+     */
+    private static <T> void scanInOrder(ForkJoinPool pool, List<T> items, ScanTask<T, ?> task, Runnable onFailure)
+            throws CoreException, InterruptedException {
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Callable<Void> worker = () -> {
+            try {
+                int i;
+                while (!failed.get() && (i = claimed.getAndIncrement()) < items.size()) {
+                    task.scan(items.get(i));
+                }
+                return null;
+            } catch (CoreException | InterruptedException | RuntimeException | Error e) {
+                failed.set(true);
+                onFailure.run();
+                throw e;
             }
+        };
 
-            // 检查父类 deprecated
-            if (node.getSuperclassType() != null) {
-//                checkDeprecatedType(node, node.getSuperclassType(), "extends");
-                checkDeprecatedType(node.getSuperclassType(), node.getSuperclassType(), "extends");
-            }
-            // 检查接口 deprecated
-            for (Object o : node.superInterfaceTypes()) {
-//                checkDeprecatedType(node, (Type) o, "implements");
-                Type t = (Type) o;
-              checkDeprecatedType(t, t, "implements");
+        int workers = Math.max(1, Math.min(ScanOptions.PARALLELISM, items.size()));
+        List<Future<Void>> futures = pool.invokeAll(Collections.nCopies(workers, worker));
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof CoreException ce) {
+                    throw ce;
+                }
+                if (cause instanceof InterruptedException ie) {
+                    throw ie;
+                }
+                if (cause instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
             }
-            return super.visit(node);
         }
+    }
 
-        // ---------- 字段类型 ----------
-        @Override
-        public boolean visit(FieldDeclaration node) {
-            int modifiers = node.getModifiers();
-            checkDeprecatedType(node, node.getType(), "field", modifiers);
-            return super.visit(node);
-        }
+    /**
+     * 一批编译单元
+     *
+     * @param seq 写入线程的序号
+     * @param offset 第一个编译单元在全部编译单元中的下标（sources / hashes 的下标）
+     * @param units 编译单元
+     */
+    private record Batch(int seq, int offset, List<ICompilationUnit> units) {
+    }
 
-        // ---------- 方法返回值 ----------
-        @Override
-        public boolean visit(MethodDeclaration node) {
-            int modifiers = node.getModifiers();
-            if (node.getReturnType2() != null) {
-                checkDeprecatedType(node, node.getReturnType2(), "return", modifiers);
-            }
-            if (node.resolveBinding() != null && node.resolveBinding().isDeprecated()) {
-                report(node, resolveCaller(node), formatMethod(node.resolveBinding()));
+    /**
+     * 一次遍历扫描全部编译单元，每个批次结束就把结果交给写入线程（序号 0～）
+     * 各批次中每个编译单元先取 marker（编译错误），再解析 AST（已弃用 API），结果按种类分开交给写入线程。
+     * batchSize > 1 时按批次交给 ASTParser.createASTs，批次内共享绑定解析的环境
+     *
+     * 报告中全部的编译错误在前：写入线程暂存 deprecated 结果，直到最后一个有 marker 的批次写完。
+     * 哪些批次有 marker 只查 marker 索引（每个编译单元一次 HashMap），那之后的批次不再暂存。
+     */
+    private void scanUnits(ForkJoinPool pool, List<ICompilationUnit> units, String[] sources, String[] hashes,
+            ProblemMarkerIndex markers, ScanCache cache, DeprecatedNameFilter filter, SignatureFormatter formatter,
+            ReportWriter writer, ScanStatistics statistics) throws CoreException, InterruptedException {
+        int batchSize = Math.max(1, ScanOptions.BATCH_SIZE);
+        List<Batch> batches = new ArrayList<>();
+        int errorBatches = 0;
+        for (int i = 0; i < units.size(); i += batchSize) {
+            Batch batch = new Batch(batches.size(), i, units.subList(i, Math.min(i + batchSize, units.size())));
+            batches.add(batch);
+            for (ICompilationUnit unit : batch.units()) {
+                if (!markers.problemsOf(unit.getResource()).isEmpty()) {
+                    errorBatches = batches.size();
+                    break;
+                }
             }
-            return super.visit(node);
         }
+        writer.errorsUntil(errorBatches);
+
+        // 按序号顺序领取批次，超出写入线程的重排窗口时在 submit() 等待
+        scanInOrder(pool, batches, batch -> {
+            // 1️⃣ marker 阶段
+            List<Finding> errors = new ArrayList<>();
+            for (ICompilationUnit unit : batch.units()) {
+                if (markers.problemsOf(unit.getResource()).isEmpty()) continue;
+
+                long wall = System.nanoTime();
+                long cpu = ScanStatistics.cpuTime();
+                List<Finding> problems = reportProblems(unit, markers);
+                statistics.add(ScanStatistics.Phase.PROBLEMS, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu,
+                        1, problems.size());
+                errors.addAll(problems);
+            }
 
-        // ---------- 方法参数 ----------
-        @Override
-        public boolean visit(SingleVariableDeclaration node) {
-            int modifiers = node.getModifiers();
-            checkDeprecatedType(node, node.getType(), "param", modifiers);
-            return super.visit(node);
-        }
+            // 2️⃣ AST 阶段
+            List<Finding> deprecations = new ArrayList<>();
+            for (List<Finding> unitDeprecations : scanBatch(batch, sources, hashes, cache, filter, formatter, statistics)) {
+                deprecations.addAll(unitDeprecations);
+            }
+            writer.submit(batch.seq(), errors, deprecations);
+            return batch;
+        }, writer::cancel);
+    }
 
-        // ---------- 核心检查 deprecated 类型 ----------
-        private void checkDeprecatedType(ASTNode location, Type type, String role) {
-            checkDeprecatedType(location, type, role, 0);
+    /**
+     * 解析一批编译单元（内容没有变化的编译单元重放缓存，预过滤没有命中的编译单元没有结果，都不再解析）
+     * 内容哈希和源码使用 scanDeclared 读取的结果，不再读取源文件。用过的源码释放。
+     */
+    private List<List<Finding>> scanBatch(Batch unitBatch, String[] sources, String[] hashes, ScanCache cache,
+            DeprecatedNameFilter filter, SignatureFormatter formatter, ScanStatistics statistics) {
+        List<ICompilationUnit> batch = unitBatch.units();
+        int offset = unitBatch.offset();
+        List<List<Finding>> deprecations = new ArrayList<>(Collections.nCopies(batch.size(), null));
+        List<ICompilationUnit> toParse = new ArrayList<>();
+        long wall = System.nanoTime();
+        long cpu = ScanStatistics.cpuTime();
+        int replayed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (cache != null) {
+                deprecations.set(i, cache.lookup(batch.get(i).getPath().toString(), hashes[offset + i]));
+            }
+            if (deprecations.get(i) != null) {
+                replayed += deprecations.get(i).size();
+            }
         }
-
-        private void checkDeprecatedType(ASTNode location, Type type, String role, int modifiers) {
-            ITypeBinding tb = type.resolveBinding();
-            if (tb == null || !tb.isDeprecated()) return;
-
-            String desc = (formatModifiers(tb.getModifiers()).isEmpty() ? "" : formatModifiers(tb.getModifiers()) + " ")
-                    + formatTypeWithKeyword(tb);
-            report(location, resolveCaller(location), desc);
+        if (cache != null) {
+            statistics.add(ScanStatistics.Phase.CACHE, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu,
+                    batch.size(), replayed);
         }
 
-        // ---------- 输出信息 ----------
-        private void report(ASTNode node, String caller, String callee) {
-            if (caller == null || callee == null) return;
-            int line = cu.getLineNumber(node.getStartPosition());
-            String key = caller + " -> " + callee;
-            if (reported.add(key)) {
-                System.out.println(caller + "  (line " + line + ")");
-                System.out.println("  -> " + callee);
-
-                // 输出到excel模板
-                int sheetLastRowNum =  outputSheet.getLastRowNum()+2;
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "B" + sheetLastRowNum, sheetLastRowNum -4);
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "C" + sheetLastRowNum, caller);
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "D" + sheetLastRowNum, caller + "  (line " + line + ")" + "\n  -> " + callee);
-                excelMakeFile.setCellValue(outputSheet.getSheetName(), "J" + sheetLastRowNum, "廃止予定");
-
-				setBorderStyle(excelMakeFile, outputSheet.getSheetName(), sheetLastRowNum);
+        // 预过滤没有命中的编译单元不保存到缓存（关闭预过滤时要重新解析）
+        if (filter != null) {
+            wall = System.nanoTime();
+            cpu = ScanStatistics.cpuTime();
+            int checked = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                String source = sources[offset + i];
+                sources[offset + i] = null;
+                if (deprecations.get(i) != null) continue;
+                checked++;
+                if (!filter.isCandidate(source.toCharArray())) {
+                    deprecations.set(i, List.of());
+                }
+            }
+            statistics.add(ScanStatistics.Phase.PREFILTER, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu,
+                    checked, 0);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (deprecations.get(i) == null) {
+                toParse.add(batch.get(i));
             }
         }
 
-        // ---------- 获取调用者 ----------
-        private String resolveCaller(ASTNode node) {
-            ASTNode cur = node;
-            while (cur != null) {
-                if (cur instanceof MethodDeclaration md) {
-                    IMethodBinding mb = md.resolveBinding();
-                    if (mb == null) return null;
-                    return formatMethod(mb);
+        if (!toParse.isEmpty()) {
+            List<List<Finding>> parsed = toParse.size() == 1
+                    ? Collections.singletonList(parse(toParse.get(0), formatter, statistics))
+                    : parseBatch(toParse, formatter, statistics);
+            int next = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (deprecations.get(i) != null) continue;
+                List<Finding> unitDeprecations = parsed.get(next++);
+                if (unitDeprecations == null) {
+                    // 没有解析的编译单元不保存到缓存（下次重新解析）
+                    deprecations.set(i, List.of());
+                    continue;
                 }
-                if (cur instanceof TypeDeclaration td) {
-                    ITypeBinding tb = td.resolveBinding();
-                    if (tb == null) return null;
-                    return formatModifiers(tb.getModifiers()) + " " + formatTypeWithKeyword(tb);
+                deprecations.set(i, unitDeprecations);
+                if (cache != null) {
+                    cache.store(batch.get(i).getPath().toString(), hashes[offset + i], unitDeprecations);
                 }
-                cur = cur.getParent();
             }
-            return null;
         }
+        return deprecations;
+    }
 
-        // ---------- 格式化方法签名 ----------
-        private String formatMethod(IMethodBinding mb) {
-            String owner = formatType(mb.getDeclaringClass());
-            String mods = formatModifiers(mb.getModifiers());
+    /**
+     * 在线程池中传递 CoreException / InterruptedException 用
+     */
+    private static class ScanFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
 
-            String params;
-            if (mb.getParameterTypes().length == 0) {
-                params = "";
-            } else {
-                params = "\n    " + Arrays.stream(mb.getParameterTypes())
-                        .map(this::formatType)
-//                        .collect(Collectors.joining(",\n    "));
-                        .collect(Collectors.joining(",\n    ")) + "\n";
-            }
+        ScanFailure(Exception cause) {
+            super(cause);
+        }
+    }
 
-            String returnType = formatType(mb.getReturnType());
+    /**
+     * 生成开启绑定解析的 ASTParser
+     */
+    private static ASTParser newParser() {
+        ASTParser parser = ASTParser.newParser(AST.JLS21);
+        parser.setResolveBindings(true);     // 开启绑定解析
+        parser.setBindingsRecovery(true);    // 尽量恢复绑定失败
+        return parser;
+    }
 
-            return (mods.isEmpty() ? "" : mods + " ") + returnType + " " + owner + "." + mb.getName() + "(" + params + ")";
-        }
+    /**
+     * 使用 ASTParser 解析单个 Java 文件（没有返回 AST 时为 null）
+     */
+    private List<Finding> parse(ICompilationUnit unit, SignatureFormatter formatter, ScanStatistics statistics) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long wall = System.nanoTime();
+        long cpu = ScanStatistics.cpuTime();
+        ASTParser parser = newParser();
+        parser.setSource(unit);
 
-        // ---------- 格式化类型 ----------
-        private String formatType(ITypeBinding tb) {
-            if (tb == null) return "unknown";
-            if (tb.isArray()) return formatType(tb.getElementType()) + "[]";
-            if (tb.isPrimitive()) return tb.getName();
-            String binary = tb.getBinaryName(); // 内部类用 $
-            return binary != null ? binary : tb.getQualifiedName();
+        CompilationUnit cu = (CompilationUnit) parser.createAST(null);
+        if (cu == null) {
+            unparsed(unit, statistics);
+            event.commit(unit.getPath().toString(), 1, 0);
+            return null;
         }
+        long parsedWall = System.nanoTime();
+        long parsedCpu = ScanStatistics.cpuTime();
+        statistics.add(ScanStatistics.Phase.PARSE, parsedWall - wall, parsedCpu - cpu, 1, 0);
+
+        DeprecatedVisitor visitor = new DeprecatedVisitor(cu, unit.getElementName(), formatter);
+        cu.accept(visitor); // 使用自定义 Visitor
+        long visitedWall = System.nanoTime();
+        statistics.add(ScanStatistics.Phase.VISIT, visitedWall - parsedWall, ScanStatistics.cpuTime() - parsedCpu,
+                1, visitor.findings.size());
+        statistics.unit(unit.getPath().toString(), visitedWall - wall, visitor.findings.size());
+        event.commit(unit.getPath().toString(), 1, visitor.findings.size());
+        return visitor.findings;
+    }
 
-        // ---------- 类型 + 关键字 ----------
-        private String formatTypeWithKeyword(ITypeBinding tb) {
-            if (tb == null) return "unknown";
+    /**
+     * 使用 ASTParser.createASTs 批量解析 Java 文件（没有返回 AST 的编译单元为 null）
+     * AST 在 Visitor 处理完之后不再保留，批次越大越省绑定解析，但占用内存越多
+     */
+    private List<List<Finding>> parseBatch(List<ICompilationUnit> batch, SignatureFormatter formatter,
+            ScanStatistics statistics) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        ASTParser parser = newParser();
+        parser.setProject(batch.get(0).getJavaProject()); // 批量解析绑定时必须指定
+
+        // 上一个编译单元遍历结束到这个编译单元交过来之间的时间算作这个编译单元的解析时间
+        long[] last = { System.nanoTime(), ScanStatistics.cpuTime() };
+        Map<ICompilationUnit, List<Finding>> byUnit = new HashMap<>();
+        parser.createASTs(batch.toArray(new ICompilationUnit[0]), new String[0], new ASTRequestor() {
+            @Override
+            public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+                long parsedWall = System.nanoTime();
+                long parsedCpu = ScanStatistics.cpuTime();
+                statistics.add(ScanStatistics.Phase.PARSE, parsedWall - last[0], parsedCpu - last[1], 1, 0);
+
+                DeprecatedVisitor visitor = new DeprecatedVisitor(ast, source.getElementName(), formatter);
+                ast.accept(visitor); // 使用自定义 Visitor
+                byUnit.put(source, visitor.findings);
+
+                long visitedWall = System.nanoTime();
+                long visitedCpu = ScanStatistics.cpuTime();
+                statistics.add(ScanStatistics.Phase.VISIT, visitedWall - parsedWall, visitedCpu - parsedCpu,
+                        1, visitor.findings.size());
+                statistics.unit(source.getPath().toString(), visitedWall - last[0], visitor.findings.size());
+                last[0] = visitedWall;
+                last[1] = visitedCpu;
+            }
+        }, null);
+
+        // 按批次内的顺序返回（没有返回 AST 的编译单元为 null，记录到统计）
+        List<List<Finding>> results = new ArrayList<>(batch.size());
+        int findings = 0;
+        for (ICompilationUnit unit : batch) {
+            List<Finding> unitFindings = byUnit.get(unit);
+            if (unitFindings == null) {
+                unparsed(unit, statistics);
+            } else {
+                findings += unitFindings.size();
+            }
+            results.add(unitFindings);
+        }
+        event.commit(batch.get(0).getPath().toString(), batch.size(), findings);
+        return results;
+    }
 
-            String kind;
-            if (tb.isAnnotation()) kind = "@interface";
-            else if (tb.isEnum()) kind = "enum";
-            else if (tb.isInterface()) kind = "interface";
-            else kind = "class";
+    /**
+     * ASTParser 没有返回 AST 的编译单元：没有 deprecated 的结果，输出到控制台并记录到统计
+     */
+    private static void unparsed(ICompilationUnit unit, ScanStatistics statistics) {
+        System.out.println("[Parse] no AST, deprecations not reported : " + unit.getPath());
+        statistics.unparsed(unit.getPath().toString());
+    }
 
-            return kind + " " + formatType(tb);
+    /**
+     * 收集编译错误，从项目的 marker 索引中取得
+     */
+    private List<Finding> reportProblems(ICompilationUnit unit, ProblemMarkerIndex markers) {
+        ProblemsEvent event = new ProblemsEvent();
+        event.begin();
+        List<Finding> findings = new ArrayList<>();
+        List<ProblemMarkerIndex.Problem> problems = markers.problemsOf(unit.getResource());
+        if (problems.isEmpty()) {
+            event.commit(unit.getPath().toString(), findings);
+            return findings;
         }
 
-        // ---------- 格式化修饰符 ----------
-        private String formatModifiers(int mods) {
-            return Modifier.toString(mods);
+        String fullName;
+        try {
+            // 获取顶层类全限定名（一个编译单元取得一次）
+            IType[] types = unit.getAllTypes();
+            fullName = "unknown";
+            if (types != null && types.length > 0) {
+                IType type = types[0];
+                fullName = type.getFullyQualifiedName(); // 包含 package
+            }
+        } catch (JavaModelException e) {
+            fullName = null; // 只输出到控制台
         }
-    }
 
-    
-    public static void setBorderStyle(ExcelMakeFile excelMakeFile,String sheetName,int sheetLastRowNum){
-
-        // 设置列范围 B~M
-        String[] cols = {"B","C","D","E","F","G","H","I","J","K","L","M","N"};
-        for (String colLetter : cols) {
-            excelMakeFile.setBorder(sheetName, colLetter+sheetLastRowNum, BorderStyle.THIN);
-            if ("B".equals(colLetter)) {
-                excelMakeFile.setAlignment(sheetName, colLetter+sheetLastRowNum, HorizontalAlignment.CENTER);
-                excelMakeFile.setVerticalAlignment(sheetName, colLetter+sheetLastRowNum, VerticalAlignment.CENTER);
-			} else {
-	            excelMakeFile.setAlignment(sheetName, colLetter+sheetLastRowNum, HorizontalAlignment.LEFT);
-	            excelMakeFile.setVerticalAlignment(sheetName, colLetter+sheetLastRowNum, VerticalAlignment.TOP);
-			}
+        for (ProblemMarkerIndex.Problem problem : problems) {
+            int line = problem.line();
+            String message = problem.message();
+            findings.add(new Finding(Finding.Kind.ERROR, unit.getElementName(), fullName, line, message, rules.suggest(message)));
         }
+        event.commit(unit.getPath().toString(), findings);
+        return findings;
     }
 
     @Override
@@ -0,0 +1,94 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文本形式的输出（CSV / JSON Lines）的基类
+ * 一行格式化到重复使用的 StringBuilder，直接编码到 1MB 的 direct buffer，
+ * 满了才写入 FileChannel。不经过 Writer / String 的中间复制。
+ */
+abstract class ChannelFindingSink implements FindingSink {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(512);
+
+    protected ChannelFindingSink(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 把一条结果格式化成一行（包括换行）
+     */
+    protected abstract void format(Finding finding, StringBuilder out);
+
+    /**
+     * 输出文件的开头（标题行等），由子类的构造函数调用
+     */
+    protected final void writeLine(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+                continue;
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            break;
+        }
+        encoder.reset();
+    }
+
+    @Override
+    public final void accept(Finding finding) throws IOException {
+        line.setLength(0);
+        format(finding, line);
+        writeLine(line);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * 不写出缓冲中的内容，关闭通道并删除文件（缓冲满时已经写出的行也一起删除）
+     */
+    @Override
+    public void abort() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
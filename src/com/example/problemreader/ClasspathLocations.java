@@ -0,0 +1,87 @@
+package com.example.problemreader;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * 项目 classpath 上的库在文件系统中的位置（ScanCache 的指纹和 DeprecationIndex 共用）
+ * - 库（CPE_LIBRARY）：jar / class 文件夹。工作区中的库是工作区的相对路径（/Proj/libs/x.jar），转换为文件系统的路径。
+ * - 依赖的项目（CPE_PROJECT）：该项目的输出文件夹，以及该项目 export 的库和项目（递归）。
+ * 不存在的位置也返回（由使用方判断），顺序与 classpath 相同，没有重复。
+ */
+final class ClasspathLocations {
+
+    private ClasspathLocations() {
+    }
+
+    /**
+     * 项目的 classpath 上的库的位置
+     */
+    static List<Path> of(IJavaProject javaProject) throws JavaModelException {
+        IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+        Set<Path> locations = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(javaProject.getElementName());
+        collect(root, javaProject, false, locations, visited);
+        return new ArrayList<>(locations);
+    }
+
+    /**
+     * @param exportedOnly 依赖的项目时只收集 export 的条目
+     */
+    private static void collect(IWorkspaceRoot root, IJavaProject javaProject, boolean exportedOnly, Set<Path> locations,
+            Set<String> visited) throws JavaModelException {
+        for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+            if (exportedOnly && !entry.isExported()) continue;
+
+            if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+                locations.add(location(root, entry.getPath()));
+            } else if (entry.getEntryKind() == IClasspathEntry.CPE_PROJECT) {
+                String name = entry.getPath().lastSegment();
+                if (!visited.add(name)) continue;
+
+                // 关闭的项目、非 Java 项目不存在
+                IJavaProject dependency = JavaCore.create(root.getProject(name));
+                if (!dependency.exists()) continue;
+
+                outputLocations(root, dependency, locations);
+                collect(root, dependency, true, locations, visited);
+            }
+        }
+    }
+
+    /**
+     * 项目的输出文件夹（默认的输出文件夹和 source 根路径各自指定的输出文件夹）
+     */
+    private static void outputLocations(IWorkspaceRoot root, IJavaProject javaProject, Set<Path> locations)
+            throws JavaModelException {
+        locations.add(location(root, javaProject.getOutputLocation()));
+        for (IClasspathEntry entry : javaProject.getRawClasspath()) {
+            if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE && entry.getOutputLocation() != null) {
+                locations.add(location(root, entry.getOutputLocation()));
+            }
+        }
+    }
+
+    /**
+     * 工作区的相对路径转换为文件系统的路径（工作区外的路径不变）
+     */
+    private static Path location(IWorkspaceRoot root, IPath path) {
+        IResource resource = root.findMember(path);
+        IPath location = resource != null && resource.getLocation() != null ? resource.getLocation() : path;
+        return location.toPath();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * CSV 输出（UTF-8，RFC 4180）
+ * 列：kind, policy, unit, caller, line, detail, suggestion
+ */
+final class CsvFindingSink extends ChannelFindingSink {
+
+    CsvFindingSink(Path file) throws IOException {
+        super(file);
+        writeLine("kind,policy,unit,caller,line,detail,suggestion\r\n");
+    }
+
+    @Override
+    protected void format(Finding finding, StringBuilder out) {
+        out.append(finding.kind()).append(',');
+        field(out, finding.kind().policy).append(',');
+        field(out, finding.unitName()).append(',');
+        field(out, finding.caller()).append(',');
+        out.append(finding.line()).append(',');
+        field(out, finding.detail()).append(',');
+        field(out, finding.suggestion()).append("\r\n");
+    }
+
+    /**
+     * 包含 , " 换行 时用 " 括起来（null 为空）
+     */
+    private static StringBuilder field(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return out.append(value);
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.problemreader;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 报告的去重索引
+ * 冲突策略由 -Dproblemreader.dedup 指定：
+ * - hashed（默认）：只保存 key 的 128 位哈希（long[] 开放地址表），不保存字符串本身。
+ *   不同的 key 哈希相同的概率可以忽略，但理论上会被当作重复而少输出一行。
+ * - exact：和以前一样保存 key 字符串，结果严格，但内存占用大。
+ */
+interface DedupIndex {
+
+    /**
+     * 登录 key
+     *
+     * @return 新的 key 时 true，已经登录过时 false
+     */
+    boolean add(String key);
+
+    /**
+     * 登录件数
+     */
+    int size();
+
+    /**
+     * 估算的内存占用（字节）
+     */
+    long memoryBytes();
+
+    /**
+     * 按 -Dproblemreader.dedup 生成索引
+     */
+    static DedupIndex create() {
+        return "exact".equalsIgnoreCase(ScanOptions.DEDUP) ? new Exact() : new HashedDedupIndex();
+    }
+
+    /**
+     * 保存 key 字符串的索引（以前的 HashSet<String>）
+     */
+    final class Exact implements DedupIndex {
+        private final Set<String> keys = new HashSet<>();
+        private long chars;
+
+        @Override
+        public boolean add(String key) {
+            if (!keys.add(key)) {
+                return false;
+            }
+            chars += key.length();
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public long memoryBytes() {
+            // HashMap.Node + String + byte[] 的粗略估算
+            return keys.size() * 88L + chars * 2;
+        }
+    }
+}
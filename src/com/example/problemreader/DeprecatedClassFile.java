@@ -0,0 +1,185 @@
+package com.example.problemreader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * class 文件中 deprecated 的读取（不加载类）
+ * 只读取常量池、类 / 字段 / 方法的访问标志和属性，
+ * Deprecated 属性或 RuntimeVisibleAnnotations 中的 @java.lang.Deprecated 表示 deprecated。
+ * 结果交给 Handler。private / synthetic 的成员和非 public 的类不报告（项目的代码用不到）。
+ */
+final class DeprecatedClassFile {
+
+    /**
+     * 读取结果的回调
+     */
+    interface Handler {
+        /**
+         * deprecated 的类型
+         *
+         * @param binaryName 二进制名（java.util.Map$Entry）
+         */
+        void type(String binaryName);
+
+        /**
+         * 成员
+         *
+         * @param owner 所属类型的二进制名
+         * @param name 名字（构造为 &lt;init&gt;）
+         * @param descriptor 方法的描述符（字段为 null）
+         * @param isStatic static 成员
+         * @param deprecated deprecated
+         */
+        void member(String owner, String name, String descriptor, boolean isStatic, boolean deprecated);
+    }
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_MODULE = 0x8000;
+
+    private static final String DEPRECATED_DESCRIPTOR = "Ljava/lang/Deprecated;";
+
+    private final ByteBuffer in;
+
+    /** 常量池：index → 在 in 中的位置 */
+    private int[] offsets;
+
+    private DeprecatedClassFile(ByteBuffer in) {
+        this.in = in;
+    }
+
+    /**
+     * 读取一个 class 文件
+     *
+     * @throws IllegalArgumentException 不是 class 文件，或者格式不正确时
+     */
+    static void read(byte[] classFile, Handler handler) {
+        try {
+            new DeprecatedClassFile(ByteBuffer.wrap(classFile)).read(handler);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid class file : " + e, e);
+        }
+    }
+
+    private void read(Handler handler) {
+        if (in.getInt() != 0xCAFEBABE) {
+            throw new IllegalArgumentException("bad magic");
+        }
+        in.getShort(); // minor
+        in.getShort(); // major
+        readConstantPool();
+
+        int access = in.getShort() & 0xFFFF;
+        String owner = className(in.getShort() & 0xFFFF).replace('/', '.');
+        in.getShort(); // super
+        int interfaces = in.getShort() & 0xFFFF;
+        in.position(in.position() + 2 * interfaces);
+
+        // 非 public 的类和 module-info 只跳过（字段 / 方法的位置要读完才知道，所以先判断）
+        boolean visible = (access & ACC_PUBLIC) != 0 && (access & (ACC_SYNTHETIC | ACC_MODULE)) == 0;
+
+        for (int kind = 0; kind < 2; kind++) {
+            int count = in.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                int flags = in.getShort() & 0xFFFF;
+                String name = utf8(in.getShort() & 0xFFFF);
+                String descriptor = utf8(in.getShort() & 0xFFFF);
+                boolean deprecated = readAttributes();
+                if (!visible || (flags & (ACC_PRIVATE | ACC_SYNTHETIC)) != 0 || "<clinit>".equals(name)) continue;
+
+                handler.member(owner, name, kind == 0 ? null : descriptor, (flags & ACC_STATIC) != 0, deprecated);
+            }
+        }
+        if (readAttributes() && visible) {
+            handler.type(owner);
+        }
+    }
+
+    private void readConstantPool() {
+        int count = in.getShort() & 0xFFFF;
+        offsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            offsets[i] = in.position();
+            int tag = in.get();
+            switch (tag) {
+            case 1 -> {                                                         // Utf8
+                int length = in.getShort() & 0xFFFF;
+                in.position(in.position() + length);
+            }
+            case 7, 8, 16, 19, 20 -> in.position(in.position() + 2);            // Class, String, MethodType, Module, Package
+            case 15 -> in.position(in.position() + 3);                          // MethodHandle
+            case 3, 4, 9, 10, 11, 12, 17, 18 -> in.position(in.position() + 4);
+            case 5, 6 -> {                                                      // Long, Double（占 2 个 index）
+                in.position(in.position() + 8);
+                i++;
+            }
+            default -> throw new IllegalArgumentException("constant pool tag " + tag);
+            }
+        }
+    }
+
+    /**
+     * 读取属性表，有 Deprecated 属性或 @Deprecated 时 true
+     */
+    private boolean readAttributes() {
+        boolean deprecated = false;
+        int count = in.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            String name = utf8(in.getShort() & 0xFFFF);
+            int length = in.getInt();
+            int end = in.position() + length;
+            if ("Deprecated".equals(name)) {
+                deprecated = true;
+            } else if (!deprecated && "RuntimeVisibleAnnotations".equals(name)) {
+                int annotations = in.getShort() & 0xFFFF;
+                for (int a = 0; a < annotations && !deprecated; a++) {
+                    deprecated = readAnnotation();
+                }
+            }
+            in.position(end);
+        }
+        return deprecated;
+    }
+
+    /**
+     * 读取一个注解，是 @Deprecated 时 true
+     */
+    private boolean readAnnotation() {
+        String type = utf8(in.getShort() & 0xFFFF);
+        int pairs = in.getShort() & 0xFFFF;
+        for (int p = 0; p < pairs; p++) {
+            in.getShort(); // name
+            skipElementValue();
+        }
+        return DEPRECATED_DESCRIPTOR.equals(type);
+    }
+
+    private void skipElementValue() {
+        int tag = in.get();
+        switch (tag) {
+        case 'e' -> in.position(in.position() + 4);
+        case '@' -> readAnnotation();
+        case '[' -> {
+            int values = in.getShort() & 0xFFFF;
+            for (int v = 0; v < values; v++) {
+                skipElementValue();
+            }
+        }
+        default -> in.position(in.position() + 2); // 常量 / class
+        }
+    }
+
+    private String className(int index) {
+        return utf8(in.getShort(offsets[index] + 1) & 0xFFFF);
+    }
+
+    private String utf8(int index) {
+        int offset = offsets[index];
+        int length = in.getShort(offset + 1) & 0xFFFF;
+        // class 文件的 modified UTF-8 和 UTF-8 只在 \0 和补充字符上不同，名字中不会出现
+        return new String(in.array(), offset + 3, length, StandardCharsets.UTF_8);
+    }
+}
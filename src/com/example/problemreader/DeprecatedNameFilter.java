@@ -0,0 +1,616 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 绑定解析之前的文本预过滤
+ * 源码中没有出现任何 deprecated API 的名字的编译单元不可能有 deprecated 使用，不用 ASTParser 解析。
+ * 名字全部建成一个 MultiStringMatcher，源码（char[]）只扫描一次。只看名字，所以可能多解析
+ * （同名的其他方法），但不会漏掉名字表中的 API。实例成员只看成员名（变量的类型名不一定出现在源码中），
+ * 方法名只在方法的写法（后面是 ( 或 =、前面是 ::）中才算，同名的变量不算。
+ * 类型名.成员名只用于 static 成员（通过类型名调用）。
+ * 顶层类型（type 全限定名）只有在源码中能指向这个类型时才算：带包名（import 和全限定名）、
+ * import 包名.* 、同一个包或 java.lang 的类型，用 DeprecationIndex 的类型表确认。
+ * 不在同一个包中的顶层类型只用类型名时一定有 import，所以不会漏掉，
+ * java.time.Duration 这样与 deprecated 的类型（其他包的 Duration）同名的类型不再算作命中。
+ * 注释、字符串和字符字面量中的名字不算（许可证和 javadoc 中的 and、error 等单词）。
+ * 名字表的格式见 resources/deprecated-names.txt。项目自己的源码中 @Deprecated / @deprecated 的
+ * 声明名也加入名字表，Deprecated / deprecated 本身也是名字（声明 deprecated 的编译单元总是解析，
+ * javadoc 的 @deprecated 在注释中也算）。
+ * 建成之后只读，可以在扫描线程中共用。
+ */
+final class DeprecatedNameFilter {
+
+    /** 构造可以有的修饰符 */
+    private static final Set<String> MODIFIERS = Set.of("public", "protected", "private");
+
+    /** 有构造的类型的关键字 */
+    private static final List<String> TYPE_KEYWORDS = List.of("class", "record");
+
+    /** 名字表中顶层类型的行的前缀（type 全限定名） */
+    static final String TYPE_KEY = "type ";
+
+    /** 无法确定的限定名 */
+    private static final String UNKNOWN = new String("?");
+
+    /**
+     * 一个标识符的用途
+     */
+    private static final class Entry {
+        final String text;
+        /** 作为标识符出现即可 */
+        boolean name;
+        /** 在注释中也算 */
+        boolean comment;
+        /** 方法名：调用、方法引用、注解的元素的写法中出现时 */
+        boolean method;
+        /** 顶层类型的类型名：包名 + 类型名在类型表中时 */
+        boolean type;
+        /** new 后面出现时 */
+        boolean constructor;
+        /** 作为 static 成员名时，这些类型名也出现时 */
+        final Set<String> ownerNames = new LinkedHashSet<>();
+        /** ownerNames 的 pattern index */
+        int[] owners;
+
+        Entry(String text) {
+            this.text = text;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final MultiStringMatcher matcher;
+    private final DeprecationIndex index;
+
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder candidates = new LongAdder();
+
+    private DeprecatedNameFilter(List<Entry> entries, MultiStringMatcher matcher, DeprecationIndex index) {
+        this.entries = entries;
+        this.matcher = matcher;
+        this.index = index;
+    }
+
+    /**
+     * 读取名字表（# 开头为注释）
+     */
+    static List<String> load(Path file) throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            keys.add(line);
+        }
+        return keys;
+    }
+
+    /**
+     * 建立过滤器
+     *
+     * @param keys 名字表的各行，以及项目源码中的声明名
+     * @param index type 行的类型的类型表
+     */
+    static DeprecatedNameFilter of(Collection<String> keys, DeprecationIndex index) {
+        Map<String, Entry> byName = new LinkedHashMap<>();
+        entry(byName, "Deprecated").name = true;
+        entry(byName, "deprecated").name = true;
+        entry(byName, "deprecated").comment = true;
+
+        for (String key : keys) {
+            if (key.startsWith("new ")) {
+                entry(byName, key.substring(4).strip()).constructor = true;
+            } else if (key.endsWith("()") && key.indexOf('.') < 0) {
+                entry(byName, key.substring(0, key.length() - 2)).method = true;
+            } else if (key.startsWith(TYPE_KEY)) {
+                String type = key.substring(TYPE_KEY.length()).strip();
+                entry(byName, type.substring(type.lastIndexOf('.') + 1)).type = true;
+            } else if (key.indexOf('.') > 0) {
+                // static 成员：通过类型名调用，类型名也在源码中
+                String owner = key.substring(0, key.indexOf('.'));
+                String member = key.substring(key.indexOf('.') + 1);
+                entry(byName, owner);
+                entry(byName, member).ownerNames.add(owner);
+            } else {
+                entry(byName, key).name = true;
+            }
+        }
+
+        List<String> names = new ArrayList<>(byName.keySet());
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            indexes.put(names.get(i), i);
+        }
+        for (Entry entry : byName.values()) {
+            entry.owners = entry.ownerNames.stream().mapToInt(indexes::get).toArray();
+        }
+        return new DeprecatedNameFilter(new ArrayList<>(byName.values()), MultiStringMatcher.of(names), index);
+    }
+
+    private static Entry entry(Map<String, Entry> byName, String name) {
+        return byName.computeIfAbsent(name, Entry::new);
+    }
+
+    /**
+     * 是否需要解析（源码中出现了名字表中的 API）
+     */
+    boolean isCandidate(char[] source) {
+        boolean[] seen = new boolean[entries.size()];
+        boolean[] unqualified = new boolean[entries.size()];
+        boolean[] hit = { false };
+        int[][] literals = { null };
+        matcher.scan(source, (pattern, start, end) -> {
+            if (!isIdentifier(source, start, end)) {
+                return true;
+            }
+            Entry entry = entries.get(pattern);
+            if (!entry.comment) {
+                if (literals[0] == null) {
+                    literals[0] = literalRanges(source);
+                }
+                if (contains(literals[0], start)) {
+                    return true;
+                }
+            }
+            if (entry.name || (entry.constructor && afterNew(source, start))
+                    || (entry.method && isMethodUse(source, start, end))) {
+                hit[0] = true;
+                return false;
+            }
+            if (entry.type) {
+                String qualifier = qualifier(source, start);
+                if (qualifier == null) {
+                    unqualified[pattern] = true;
+                } else if (qualifier == UNKNOWN || index.isDeprecatedType(qualifier + "." + entry.text)) {
+                    hit[0] = true;
+                    return false;
+                }
+            }
+            seen[pattern] = true;
+            return true;
+        });
+
+        if (!hit[0]) {
+            for (int i = 0; i < seen.length && !hit[0]; i++) {
+                if (!seen[i]) continue;
+                for (int owner : entries.get(i).owners) {
+                    if (seen[owner]) {
+                        hit[0] = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // 只用类型名的顶层类型：本包、import 包名.*、java.lang 中的同名类型是否 deprecated
+        List<String> packages = null;
+        for (int i = 0; i < unqualified.length && !hit[0]; i++) {
+            if (!unqualified[i]) continue;
+            if (packages == null) {
+                packages = visiblePackages(source);
+            }
+            for (String pkg : packages) {
+                // 无法确定包时（import module 等）当作命中
+                if (pkg == null || index.isDeprecatedType(pkg + "." + entries.get(i).text)) {
+                    hit[0] = true;
+                    break;
+                }
+            }
+        }
+
+        checked.increment();
+        if (hit[0]) {
+            candidates.increment();
+        }
+        return hit[0];
+    }
+
+    /**
+     * 检查过的编译单元数 / 需要解析的编译单元数
+     */
+    String stats() {
+        long total = checked.sum();
+        long parsed = candidates.sum();
+        return parsed + "/" + total + " units parsed, " + (total - parsed) + " skipped";
+    }
+
+    /**
+     * 已经读取的源文件 → char[]
+     */
+    static char[] decode(byte[] content, Charset charset) {
+        CharBuffer chars = charset.decode(ByteBuffer.wrap(content));
+        char[] source = new char[chars.remaining()];
+        chars.get(source);
+        return source;
+    }
+
+    /**
+     * 源码中是否提到 Deprecated / deprecated（可能有 deprecated 的声明，ScanCache 的指纹使用）
+     */
+    static boolean mentionsDeprecated(char[] source) {
+        for (int i = indexOf(source, "eprecated", 1); i >= 0; i = indexOf(source, "eprecated", i + 1)) {
+            if (source[i - 1] == 'D' || source[i - 1] == 'd') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 源码中 @Deprecated / @deprecated 声明的名字表的行
+     * 类型名、字段名、enum 常量名为名字，方法为 方法名()，构造为 new 类型名。
+     * 只看声明头部的文本，判断不了时多收集（少收集会漏掉结果）。
+     */
+    static Set<String> declaredNames(char[] source) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = indexOf(source, "eprecated", 0); i >= 0; i = indexOf(source, "eprecated", i + 1)) {
+            // @Deprecated / @java.lang.Deprecated / javadoc 的 @deprecated
+            if (i < 2 || (source[i - 2] != '@' && !(source[i - 2] == '.' && source[i - 1] == 'D'))) continue;
+
+            int pos = i + "eprecated".length();
+            if (pos < source.length && Character.isJavaIdentifierPart(source[pos])) continue;
+            if (source[i - 1] == 'd') {
+                // javadoc 的 @deprecated：声明在注释结束之后
+                pos = indexOf(source, "*/", pos);
+                if (pos < 0) continue;
+                pos += 2;
+            } else if (source[i - 1] == 'D') {
+                pos = skipParentheses(source, skipBlank(source, pos));
+            } else {
+                continue;
+            }
+            String name = declarationName(source, pos);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 从 pos 开始的声明头部中声明的名字
+     * class / interface / enum / record 后面的名字，否则 = ; , { 前面最后的标识符，( 前面的为方法（方法名()）。
+     * ( 前面只有修饰符，并且文件中声明了同名的 class / record 时为构造（new 类型名）
+     */
+    private static String declarationName(char[] source, int pos) {
+        String last = null;
+        String previous = null;
+        int limit = Math.min(source.length, pos + 2000);
+        while (pos < limit) {
+            pos = skipBlank(source, pos);
+            if (pos >= limit) break;
+
+            char c = source[pos];
+            if (c == '@') {
+                int start = skipBlank(source, pos + 1);
+                int end = identifierEnd(source, start);
+                if (new String(source, start, end - start).equals("interface")) {
+                    return identifierAt(source, skipBlank(source, end));
+                }
+                // 其他注解：名字（可以带包名）和参数
+                while (end < source.length && (source[end] == '.' || Character.isJavaIdentifierPart(source[end]))) {
+                    end++;
+                }
+                pos = skipParentheses(source, skipBlank(source, end));
+            } else if (c == '<') {
+                pos = skipBalanced(source, pos, '<', '>');
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = identifierEnd(source, pos);
+                String identifier = new String(source, pos, end - pos);
+                switch (identifier) {
+                case "class", "interface", "enum", "record":
+                    return identifierAt(source, skipBlank(source, end));
+                default:
+                    previous = last;
+                    last = identifier;
+                }
+                pos = end;
+            } else if (c == '(' && last != null && (previous == null || MODIFIERS.contains(previous))
+                    && declaresType(source, last)) {
+                return "new " + last;
+            } else if (c == '(') {
+                return last != null ? last + "()" : null;
+            } else if (c == '=' || c == ';' || c == ',' || c == '{') {
+                return last;
+            } else if (c == '[' || c == ']' || c == '.' || c == '?' || c == '&') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * 源码中是否有 class name / record name 的声明
+     */
+    private static boolean declaresType(char[] source, String name) {
+        for (int i = indexOf(source, name, 0); i >= 0; i = indexOf(source, name, i + 1)) {
+            if (!isIdentifier(source, i, i + name.length())) continue;
+
+            int end = skipBlankBackward(source, i - 1) + 1;
+            for (String keyword : TYPE_KEYWORDS) {
+                int start = end - keyword.length();
+                if (start >= 0 && indexOf(source, keyword, start) == start && isIdentifier(source, start, end)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * start～end 是否是一个完整的标识符（前后不是名字的一部分）
+     */
+    private static boolean isIdentifier(char[] source, int start, int end) {
+        return (start == 0 || !Character.isJavaIdentifierPart(source[start - 1]))
+                && (end == source.length || !Character.isJavaIdentifierPart(source[end]));
+    }
+
+    /**
+     * 注释、字符串（包括文本块）和字符字面量的范围（[开始, 结束) 按位置顺序排列）
+     */
+    private static int[] literalRanges(char[] source) {
+        int[] ranges = new int[32];
+        int count = 0;
+        int length = source.length;
+        int pos = 0;
+        while (pos < length) {
+            char c = source[pos];
+            int end;
+            if (c == '/' && pos + 1 < length && source[pos + 1] == '/') {
+                end = pos + 2;
+                while (end < length && source[end] != '\n') {
+                    end++;
+                }
+            } else if (c == '/' && pos + 1 < length && source[pos + 1] == '*') {
+                end = indexOf(source, "*/", pos + 2);
+                end = end < 0 ? length : end + 2;
+            } else if (c == '"' && pos + 2 < length && source[pos + 1] == '"' && source[pos + 2] == '"') {
+                end = pos + 3;
+                while (end < length && !(source[end] == '"' && end + 2 < length
+                        && source[end + 1] == '"' && source[end + 2] == '"')) {
+                    end += source[end] == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 3, length);
+            } else if (c == '"' || c == '\'') {
+                end = pos + 1;
+                while (end < length && source[end] != c && source[end] != '\n') {
+                    end += source[end] == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, length);
+            } else {
+                pos++;
+                continue;
+            }
+            if (count == ranges.length) {
+                ranges = Arrays.copyOf(ranges, count * 2);
+            }
+            ranges[count++] = pos;
+            ranges[count++] = end;
+            pos = end;
+        }
+        return Arrays.copyOf(ranges, count);
+    }
+
+    /**
+     * pos 是否在 literalRanges 的范围中
+     */
+    private static boolean contains(int[] ranges, int pos) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (pos < ranges[mid * 2]) {
+                high = mid - 1;
+            } else if (pos >= ranges[mid * 2 + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * start 的名字前面的限定名（java.awt.Event 的 java.awt），没有时为 null
+     * 限定名不是名字（方法调用的结果等）时为空字符串（不可能是顶层类型），
+     * 中间有注释时为 UNKNOWN（当作命中）
+     */
+    private static String qualifier(char[] source, int start) {
+        int pos = skipBlankBackward(source, start - 1);
+        if (pos > 0 && source[pos] == '/' && source[pos - 1] == '*') {
+            return UNKNOWN;
+        }
+        if (pos < 0 || source[pos] != '.') {
+            return null;
+        }
+        StringBuilder qualifier = new StringBuilder();
+        while (pos >= 0 && source[pos] == '.') {
+            pos = skipBlankBackward(source, pos - 1);
+            if (pos > 0 && source[pos] == '/' && source[pos - 1] == '*') {
+                return UNKNOWN;
+            }
+            int end = pos + 1;
+            while (pos >= 0 && Character.isJavaIdentifierPart(source[pos])) {
+                pos--;
+            }
+            if (pos + 1 == end) {
+                return "";
+            }
+            qualifier.insert(0, qualifier.isEmpty() ? "" : ".").insert(0, source, pos + 1, end - pos - 1);
+            pos = skipBlankBackward(source, pos);
+        }
+        return qualifier.toString();
+    }
+
+    /**
+     * 源码中只用类型名就能使用的顶层类型的包：本包、import 包名.* 的包、java.lang
+     * 有 import module 等无法确定包的 import 时包含 null
+     */
+    private static List<String> visiblePackages(char[] source) {
+        List<String> packages = new ArrayList<>();
+        packages.add("java.lang");
+        int pos = 0;
+        while (true) {
+            pos = skipBlank(source, pos);
+            if (pos < source.length && source[pos] == '@') {
+                // package 的注解（package-info.java）
+                int end = skipBlank(source, pos + 1);
+                while (end < source.length && (source[end] == '.' || Character.isJavaIdentifierPart(source[end]))) {
+                    end++;
+                }
+                pos = skipParentheses(source, skipBlank(source, end));
+                continue;
+            }
+            String keyword = identifierAt(source, pos);
+            if (!"package".equals(keyword) && !"import".equals(keyword)) {
+                return packages;
+            }
+            int end = indexOf(source, ";", pos);
+            if (end < 0) {
+                return packages;
+            }
+            // 去掉空白和注释之后的 import 的内容（static java.util.Map.* 等）
+            StringBuilder text = new StringBuilder();
+            for (int i = skipBlank(source, pos + keyword.length()); i < end; ) {
+                text.append(source[i]);
+                int next = skipBlank(source, i + 1);
+                if (next > i + 1 && next < end && Character.isJavaIdentifierPart(source[i])
+                        && Character.isJavaIdentifierPart(source[next])) {
+                    text.append(' ');
+                }
+                i = next;
+            }
+            String name = text.toString();
+            if ("package".equals(keyword)) {
+                packages.add(name);
+            } else if (name.startsWith("module ")) {
+                packages.add(null);
+            } else if (!name.startsWith("static ") && name.endsWith(".*")) {
+                packages.add(name.substring(0, name.length() - 2));
+            }
+            pos = end + 1;
+        }
+    }
+
+    /**
+     * start～end 的名字是否是方法的写法
+     * 后面是 (（调用、声明）或 =（注解的元素，== 除外），或者前面是 ::（方法引用）
+     */
+    private static boolean isMethodUse(char[] source, int start, int end) {
+        int after = skipBlank(source, end);
+        if (after < source.length && (source[after] == '('
+                || (source[after] == '=' && (after + 1 == source.length || source[after + 1] != '=')))) {
+            return true;
+        }
+        int before = skipBlankBackward(source, start - 1);
+        return before >= 1 && source[before] == ':' && source[before - 1] == ':';
+    }
+
+    /**
+     * start 的名字是否在 new 后面（new Foo / new a.b.Foo，new 和名字之间的注释不考虑）
+     */
+    private static boolean afterNew(char[] source, int start) {
+        int pos = skipBlankBackward(source, start - 1);
+        while (pos >= 0 && source[pos] == '.') {
+            pos = skipBlankBackward(source, pos - 1);
+            while (pos >= 0 && Character.isJavaIdentifierPart(source[pos])) {
+                pos--;
+            }
+            pos = skipBlankBackward(source, pos);
+        }
+        return pos >= 2 && source[pos] == 'w' && source[pos - 1] == 'e' && source[pos - 2] == 'n'
+                && (pos == 2 || !Character.isJavaIdentifierPart(source[pos - 3]));
+    }
+
+    private static int skipBlankBackward(char[] source, int pos) {
+        while (pos >= 0 && Character.isWhitespace(source[pos])) {
+            pos--;
+        }
+        return pos;
+    }
+
+    /**
+     * 跳过空白和注释
+     */
+    private static int skipBlank(char[] source, int pos) {
+        while (pos < source.length) {
+            if (Character.isWhitespace(source[pos])) {
+                pos++;
+            } else if (pos + 1 < source.length && source[pos] == '/' && source[pos + 1] == '/') {
+                while (pos < source.length && source[pos] != '\n') {
+                    pos++;
+                }
+            } else if (pos + 1 < source.length && source[pos] == '/' && source[pos + 1] == '*') {
+                int end = indexOf(source, "*/", pos + 2);
+                pos = end < 0 ? source.length : end + 2;
+            } else {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * pos 是 ( 时跳过对应的 )
+     */
+    private static int skipParentheses(char[] source, int pos) {
+        return pos < source.length && source[pos] == '(' ? skipBalanced(source, pos, '(', ')') : pos;
+    }
+
+    private static int skipBalanced(char[] source, int pos, char open, char close) {
+        int depth = 0;
+        for (; pos < source.length; pos++) {
+            if (source[pos] == open) {
+                depth++;
+            } else if (source[pos] == close && --depth == 0) {
+                return pos + 1;
+            }
+        }
+        return pos;
+    }
+
+    private static int identifierEnd(char[] source, int pos) {
+        while (pos < source.length && Character.isJavaIdentifierPart(source[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static String identifierAt(char[] source, int pos) {
+        if (pos >= source.length || !Character.isJavaIdentifierStart(source[pos])) {
+            return null;
+        }
+        return new String(source, pos, identifierEnd(source, pos) - pos);
+    }
+
+    private static int indexOf(char[] source, String s, int from) {
+        int last = source.length - s.length();
+        for (int i = Math.max(0, from); i <= last; i++) {
+            int j = 0;
+            while (j < s.length() && source[i + j] == s.charAt(j)) {
+                j++;
+            }
+            if (j == s.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.problemreader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+/**
+ * AST Visitor，用于检测 deprecated 使用
+ * 结果保存在 findings 中，不直接输出。一个编译单元使用一个实例。
+ */
+class DeprecatedVisitor extends ASTVisitor {
+    private final CompilationUnit cu;
+    private final String unitName;
+    private final SignatureFormatter formatter;
+    final List<Finding> findings = new ArrayList<>();
+
+    // 外层声明（MethodDeclaration / TypeDeclaration）的栈，在 visit 中压入、endVisit 中弹出
+    private final ArrayDeque<Enclosing> enclosing = new ArrayDeque<>();
+
+    /**
+     * @param cu 解析好的 AST（需要绑定信息）
+     * @param unitName 编译单元文件名
+     * @param formatter 签名格式化（一个项目共用一个）
+     */
+    DeprecatedVisitor(CompilationUnit cu, String unitName, SignatureFormatter formatter) {
+        this.cu = cu;
+        this.unitName = unitName;
+        this.formatter = formatter;
+    }
+
+    // ---------- 调用 deprecated 方法 ----------
+    @Override
+    public boolean visit(MethodInvocation node) {
+        IMethodBinding mb = node.resolveMethodBinding();
+        if (mb != null && mb.isDeprecated()) {
+            report(node, currentCaller(), formatMethod(mb));
+        }
+        return super.visit(node);
+    }
+
+    // ---------- new 已弃用类 / 调用 deprecated 构造 ----------
+    @Override
+    public boolean visit(ClassInstanceCreation node) {
+        IMethodBinding mb = node.resolveConstructorBinding();
+        ITypeBinding tb = node.resolveTypeBinding();
+        if (tb != null && tb.isDeprecated()) {
+            report(node, currentCaller(), formatTypeWithKeyword(tb));
+        }
+        if (mb != null && mb.isDeprecated()) {
+            report(node, currentCaller(), formatMethod(mb));
+        }
+        return super.visit(node);
+    }
+
+    // ---------- 类声明，继承/实现 ----------
+    @Override
+    public boolean visit(TypeDeclaration node) {
+        ITypeBinding tb = node.resolveBinding();
+        enclosing.push(new Enclosing(null, tb));
+        if (tb != null && tb.isDeprecated()) {
+            report(node, currentCaller(), formatTypeWithKeyword(tb));
+        }
+
+        // 检查父类 deprecated
+        if (node.getSuperclassType() != null) {
+//                checkDeprecatedType(node, node.getSuperclassType(), "extends");
+            checkDeprecatedType(node.getSuperclassType(), node.getSuperclassType(), "extends");
+        }
+        // 检查接口 deprecated
+        for (Object o : node.superInterfaceTypes()) {
+//                checkDeprecatedType(node, (Type) o, "implements");
+            Type t = (Type) o;
+          checkDeprecatedType(t, t, "implements");
+        }
+        return super.visit(node);
+    }
+
+    // ---------- 字段类型 ----------
+    @Override
+    public boolean visit(FieldDeclaration node) {
+        int modifiers = node.getModifiers();
+        checkDeprecatedType(node, node.getType(), "field", modifiers);
+        return super.visit(node);
+    }
+
+    // ---------- 方法返回值 ----------
+    @Override
+    public boolean visit(MethodDeclaration node) {
+        IMethodBinding mb = node.resolveBinding();
+        enclosing.push(new Enclosing(mb, null));
+
+        int modifiers = node.getModifiers();
+        if (node.getReturnType2() != null) {
+            checkDeprecatedType(node, node.getReturnType2(), "return", modifiers);
+        }
+        if (mb != null && mb.isDeprecated()) {
+            report(node, currentCaller(), formatMethod(mb));
+        }
+        return super.visit(node);
+    }
+
+    @Override
+    public void endVisit(TypeDeclaration node) {
+        enclosing.pop();
+    }
+
+    @Override
+    public void endVisit(MethodDeclaration node) {
+        enclosing.pop();
+    }
+
+    // ---------- 方法参数 ----------
+    @Override
+    public boolean visit(SingleVariableDeclaration node) {
+        int modifiers = node.getModifiers();
+        checkDeprecatedType(node, node.getType(), "param", modifiers);
+        return super.visit(node);
+    }
+
+    // ---------- 核心检查 deprecated 类型 ----------
+    private void checkDeprecatedType(ASTNode location, Type type, String role) {
+        checkDeprecatedType(location, type, role, 0);
+    }
+
+    private void checkDeprecatedType(ASTNode location, Type type, String role, int modifiers) {
+        ITypeBinding tb = type.resolveBinding();
+        if (tb == null || !tb.isDeprecated()) return;
+
+        String desc = (formatModifiers(tb.getModifiers()).isEmpty() ? "" : formatModifiers(tb.getModifiers()) + " ")
+                + formatTypeWithKeyword(tb);
+        report(location, currentCaller(), desc);
+    }
+
+    // ---------- 收集信息 ----------
+    private void report(ASTNode node, String caller, String callee) {
+        if (caller == null || callee == null) return;
+        int line = cu.getLineNumber(node.getStartPosition());
+        findings.add(new Finding(Finding.Kind.DEPRECATED, unitName, caller, line, callee, null));
+    }
+
+    // ---------- 获取调用者 ----------
+    // 最近的外层 MethodDeclaration / TypeDeclaration（node 本身是声明时为 node 本身）
+    private String currentCaller() {
+        Enclosing top = enclosing.peek();
+        return top != null ? top.caller() : null;
+    }
+
+    /**
+     * 外层声明
+     * 调用方签名在第一次需要时格式化，同一个声明内的多个结果共用。
+     */
+    private final class Enclosing {
+        private final IMethodBinding method;
+        private final ITypeBinding type;
+        private String caller;
+        private boolean formatted;
+
+        Enclosing(IMethodBinding method, ITypeBinding type) {
+            this.method = method;
+            this.type = type;
+        }
+
+        // 绑定无法解析时为 null
+        String caller() {
+            if (!formatted) {
+                if (method != null) {
+                    caller = formatMethod(method);
+                } else if (type != null) {
+                    caller = formatModifiers(type.getModifiers()) + " " + formatTypeWithKeyword(type);
+                }
+                formatted = true;
+            }
+            return caller;
+        }
+    }
+
+    // ---------- 格式化（SignatureFormatter 按绑定 key 缓存） ----------
+    private String formatMethod(IMethodBinding mb) {
+        return formatter.formatMethod(mb);
+    }
+
+    private String formatTypeWithKeyword(ITypeBinding tb) {
+        return formatter.formatTypeWithKeyword(tb);
+    }
+
+    private String formatModifiers(int mods) {
+        return formatter.formatModifiers(mods);
+    }
+}
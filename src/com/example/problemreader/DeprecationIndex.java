@@ -0,0 +1,453 @@
+package com.example.problemreader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.ModuleDescriptor;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * classpath 的 deprecated 索引
+ * 一次读取 classpath 上全部的 class 文件（jar、class 文件夹和 JDK 的 jrt），从 deprecated 的类型 / 方法 / 字段生成
+ * - 类型表：deprecated 类型的二进制名的 128 位哈希（HashedDedupIndex 的开放地址表），用 mmap 读取，O(1) 查询
+ * - 预过滤（DeprecatedNameFilter）的名字表，代替 resources/deprecated-names.txt
+ * 预过滤用类型表确认源码中的类型名（包名 + 类型名）是否 deprecated。
+ * 方法和字段只放进名字表：源码的文本中得不到方法的描述符（参数的类型），放进表中也查不到。
+ * DeprecatedVisitor 不查询：绑定解析之后 IBinding.isDeprecated() 只是读取一个标志，比计算二进制名再查表便宜。
+ *
+ * 索引文件放在缓存目录中：
+ * - 各 jar（JDK）一个：文件名为 jar 内容的 SHA-256，jar 没有变化时不再读取 class 文件。
+ * - 各 class 文件夹（依赖的项目的输出文件夹等）一个：文件名为路径和 class 文件的数量、大小、更新时间的 SHA-256。
+ * - classpath 一个：各 jar 的索引合并而成，文件名为各 jar 哈希的 SHA-256。查询只看这一个文件。
+ *
+ * 文件名的扩展名带有 VERSION（.v5.depidx），格式、规则变化后不使用旧的文件（头部的 VERSION 不一致时也重新建立）。
+ * 文件格式：MAGIC, VERSION, 类型数, 槽数, long[槽数 × 2]（类型表）, 名字数, 名字（writeUTF）
+ * 不使用 classpath 时（-Dproblemreader.index=false），of() 从名字表的文件的 type 行在堆中建立同样的类型表。
+ * 建成之后只读，可以在扫描线程中共用。
+ */
+final class DeprecationIndex {
+
+    private static final int MAGIC = 0x44504958; // DPIX
+
+    /** 文件格式版本（格式、哈希、名字表的规则变化时加 1） */
+    private static final int VERSION = 7;
+
+    private static final int HEADER_BYTES = 16;
+
+    private static final String EXTENSION = ".v" + VERSION + ".depidx";
+
+    private final int typeCount;
+    private final int mask;
+    private final LongBuffer types;
+    private final List<String> filterKeys;
+
+    private DeprecationIndex(int typeCount, LongBuffer types, List<String> filterKeys) {
+        this.typeCount = typeCount;
+        this.mask = types.limit() / 2 - 1;
+        this.types = types;
+        this.filterKeys = filterKeys;
+    }
+
+    // ---------- 查询 ----------
+
+    /**
+     * 是否是 deprecated 的类型
+     *
+     * @param binaryName 二进制名（java.awt.Event、java.util.Map$Entry）
+     */
+    boolean isDeprecatedType(String binaryName) {
+        long[] hash = new long[2];
+        HashedDedupIndex.hash(binaryName, hash);
+        int slot = (int) hash[0] & mask;
+        while (true) {
+            long a = types.get(slot << 1);
+            long b = types.get((slot << 1) + 1);
+            if (a == 0 && b == 0) {
+                return false;
+            }
+            if (a == hash[0] && b == hash[1]) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * deprecated 的类型数
+     */
+    int typeCount() {
+        return typeCount;
+    }
+
+    /**
+     * 预过滤的名字表的行（格式与 resources/deprecated-names.txt 相同）
+     */
+    List<String> filterKeys() {
+        return filterKeys;
+    }
+
+    // ---------- 建立 / 读取 ----------
+
+    /**
+     * 从名字表的文件的行建立（不读取 classpath，类型表只有 type 行的类型，放在堆中）
+     */
+    static DeprecationIndex of(List<String> filterKeys) {
+        HashedDedupIndex types = new HashedDedupIndex();
+        for (String key : filterKeys) {
+            if (key.startsWith(DeprecatedNameFilter.TYPE_KEY)) {
+                types.add(key.substring(DeprecatedNameFilter.TYPE_KEY.length()).strip());
+            }
+        }
+        return new DeprecationIndex(types.size(), LongBuffer.wrap(types.table()), List.copyOf(filterKeys));
+    }
+
+    /**
+     * 取得 classpath 的索引（没有变化的 jar 使用缓存目录中的索引文件）
+     * 并行扫描的多个项目共用同一个 jar 的索引文件，所以同时只有一个线程建立（也不会同时建立同一个 JDK 的索引）。
+     *
+     * @param libraries jar / zip / class 文件夹（不存在的位置忽略）
+     * @param javaHome JDK 9 以后的 JDK（jrt），没有时为 null
+     * @param cacheDir 索引文件的目录
+     */
+    static synchronized DeprecationIndex open(List<Path> libraries, Path javaHome, Path cacheDir) throws IOException {
+        Files.createDirectories(cacheDir);
+
+        List<String> hashes = new ArrayList<>();
+        int built = 0;
+        for (Path library : libraries) {
+            boolean folder = Files.isDirectory(library);
+            if (!folder && !Files.isRegularFile(library)) continue;
+
+            String hash = folder ? folderHash(library) : contentHash(library);
+            hashes.add(hash);
+            Path file = cacheDir.resolve(hash + EXTENSION);
+            if (!isCurrent(file)) {
+                write(file, folder ? readFolder(library) : readArchive(library));
+                built++;
+            }
+        }
+        if (javaHome != null && Files.isRegularFile(javaHome.resolve("lib/modules"))) {
+            String hash = jrtHash(javaHome);
+            hashes.add(hash);
+            Path file = cacheDir.resolve(hash + EXTENSION);
+            if (!isCurrent(file)) {
+                write(file, readJrt(javaHome));
+                built++;
+            }
+        }
+
+        // 合并（jar 的组合没有变化时直接使用）
+        Path merged = cacheDir.resolve("classpath-" + sha256(String.join("\n", hashes)) + EXTENSION);
+        if (!isCurrent(merged)) {
+            Entries entries = new Entries();
+            for (String hash : hashes) {
+                DeprecationIndex segment = map(cacheDir.resolve(hash + EXTENSION));
+                for (int i = 0; i < segment.types.limit(); i += 2) {
+                    long a = segment.types.get(i);
+                    long b = segment.types.get(i + 1);
+                    if (a != 0 || b != 0) {
+                        entries.types.insert(a, b);
+                    }
+                }
+                entries.filterKeys.addAll(segment.filterKeys);
+            }
+            write(merged, entries);
+        }
+        DeprecationIndex index = map(merged);
+        System.out.println("[Index] " + hashes.size() + " archives (" + built + " rebuilt), " + index.typeCount()
+                + " deprecated types, " + index.filterKeys().size() + " names");
+        return index;
+    }
+
+    /**
+     * 写入索引文件的内容
+     */
+    private static final class Entries {
+        final HashedDedupIndex types = new HashedDedupIndex();
+        final Set<String> filterKeys = new LinkedHashSet<>();
+    }
+
+    /**
+     * 读取一个归档（jar / class 文件夹 / jrt）中的 class 文件
+     */
+    private static final class ArchiveReader implements DeprecatedClassFile.Handler {
+        private final Entries entries = new Entries();
+
+        /** deprecated 的类型（二进制名） */
+        private final Set<String> types = new HashSet<>();
+
+        /** deprecated 的成员（owner, name, new / static / method / field） */
+        private final List<String[]> members = new ArrayList<>();
+
+        void read(byte[] classFile, String path) {
+            try {
+                DeprecatedClassFile.read(classFile, this);
+            } catch (IllegalArgumentException e) {
+                System.out.println("[Index] skipped " + path + " : " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void type(String binaryName) {
+            types.add(binaryName);
+        }
+
+        @Override
+        public void member(String owner, String name, String descriptor, boolean isStatic, boolean deprecated) {
+            if (!deprecated) {
+                return;
+            }
+            String kind = "<init>".equals(name) ? "new" : isStatic ? "static" : descriptor != null ? "method" : "field";
+            members.add(new String[] { owner, name, kind });
+        }
+
+        /**
+         * 类型表和名字表的行（规则与 resources/deprecated-names.txt 相同）
+         * 顶层类型：type 全限定名 / 嵌套类型、无名包的类型：类型名 / 构造：new 类型名 /
+         * static 成员：类型名.成员名 / 实例方法：方法名() / 实例字段：字段名
+         * 实例成员的调用中类型名不一定出现（变量、方法的返回值），所以 toString、stop 这样到处都有的名字也只用成员名。
+         * deprecated 类型的成员也加入：factory().oldMethod() 这样的调用中类型名不出现，只有类型名时会漏掉。
+         */
+        Entries finish() {
+            for (String type : types) {
+                entries.types.add(type);
+                boolean topLevel = type.indexOf('$') < 0 && type.indexOf('.') > 0;
+                entries.filterKeys.add(topLevel ? DeprecatedNameFilter.TYPE_KEY + type : simpleName(type));
+            }
+            for (String[] member : members) {
+                String ownerName = simpleName(member[0]);
+                String name = member[1];
+                if ("new".equals(member[2])) {
+                    entries.filterKeys.add("new " + ownerName);
+                } else if ("static".equals(member[2])) {
+                    entries.filterKeys.add(ownerName + "." + name);
+                } else if ("method".equals(member[2])) {
+                    entries.filterKeys.add(name + "()");
+                } else {
+                    entries.filterKeys.add(name);
+                }
+            }
+            return entries;
+        }
+
+        private static String simpleName(String binaryName) {
+            String name = binaryName.substring(binaryName.lastIndexOf('.') + 1);
+            return name.substring(name.lastIndexOf('$') + 1);
+        }
+    }
+
+    private static Entries readArchive(Path library) throws IOException {
+        ArchiveReader reader = new ArchiveReader();
+        try (ZipFile zip = new ZipFile(library.toFile())) {
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry entry = zipEntries.nextElement();
+                String name = entry.getName();
+                // multi-release 的其他版本、module-info / package-info 不读取
+                if (!name.endsWith(".class") || name.startsWith("META-INF/") || name.endsWith("-info.class")) continue;
+
+                try (InputStream in = zip.getInputStream(entry)) {
+                    reader.read(in.readAllBytes(), library + "!" + name);
+                }
+            }
+        }
+        return reader.finish();
+    }
+
+    private static Entries readFolder(Path folder) throws IOException {
+        ArchiveReader reader = new ArchiveReader();
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String name = path.getFileName().toString();
+                if (!name.endsWith(".class") || name.endsWith("-info.class") || !Files.isRegularFile(path)) continue;
+
+                reader.read(Files.readAllBytes(path), path.toString());
+            }
+        }
+        return reader.finish();
+    }
+
+    /**
+     * JDK 的各模块只读取公开的包（module-info 中没有限定目标的 exports）
+     * sun.* / jdk.internal.* 等不公开的包项目的代码用不到，com.sun.net.httpserver 这样公开的包要读取。
+     */
+    private static Entries readJrt(Path javaHome) throws IOException {
+        ArchiveReader reader = new ArchiveReader();
+        FileSystem jrt = FileSystems.newFileSystem(URI.create("jrt:/"), Map.of("java.home", javaHome.toString()));
+        try (Stream<Path> modules = Files.list(jrt.getPath("/modules"))) {
+            for (Path module : (Iterable<Path>) modules::iterator) {
+                Set<String> exported = exportedPackages(module);
+                try (Stream<Path> paths = Files.walk(module)) {
+                    for (Path path : (Iterable<Path>) paths::iterator) {
+                        String name = path.getFileName() != null ? path.getFileName().toString() : "";
+                        if (!name.endsWith(".class") || name.endsWith("-info.class")) continue;
+                        if (!exported.contains(module.relativize(path.getParent()).toString().replace('/', '.'))) continue;
+
+                        reader.read(Files.readAllBytes(path), path.toString());
+                    }
+                }
+            }
+        } finally {
+            jrt.close();
+        }
+        return reader.finish();
+    }
+
+    /**
+     * 模块无条件公开的包（没有 module-info 时为空）
+     */
+    private static Set<String> exportedPackages(Path module) throws IOException {
+        Path moduleInfo = module.resolve("module-info.class");
+        if (!Files.isRegularFile(moduleInfo)) {
+            return Set.of();
+        }
+        Set<String> exported = new HashSet<>();
+        try (InputStream in = Files.newInputStream(moduleInfo)) {
+            for (ModuleDescriptor.Exports exports : ModuleDescriptor.read(in).exports()) {
+                if (!exports.isQualified()) {
+                    exported.add(exports.source());
+                }
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * 写入索引文件（先写临时文件再替换，中途失败时不会留下写了一半的文件）
+     */
+    private static void write(Path file, Entries entries) throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                long[] table = entries.types.table();
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.types.size());
+                out.writeInt(table.length / 2);
+                for (long value : table) {
+                    out.writeLong(value);
+                }
+                out.writeInt(entries.filterKeys.size());
+                for (String key : entries.filterKeys) {
+                    out.writeUTF(key);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 是否有当前版本的索引文件（没有、其他版本、损坏时重新建立）
+     */
+    private static boolean isCurrent(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == MAGIC && in.readInt() == VERSION;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 读取索引文件：类型表用 mmap 读取（不复制到堆中），名字表读到堆中
+     */
+    private static DeprecationIndex map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("not a deprecation index (or old version) : " + file);
+        }
+        int typeCount = buffer.getInt();
+        int slotCount = buffer.getInt();
+        LongBuffer types = buffer.slice(HEADER_BYTES, slotCount * 16).asLongBuffer();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            in.skipNBytes(HEADER_BYTES + slotCount * 16L);
+            int keyCount = in.readInt();
+            List<String> filterKeys = new ArrayList<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                filterKeys.add(in.readUTF());
+            }
+            return new DeprecationIndex(typeCount, types, List.copyOf(filterKeys));
+        }
+    }
+
+    private static String contentHash(Path library) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        try (FileChannel channel = FileChannel.open(library, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * class 文件夹的哈希：class 文件都读取太慢，所以用路径和 class 文件的数量、合计大小、最新的更新时间代替内容
+     */
+    private static String folderHash(Path folder) {
+        return sha256("folder\n" + folder.toAbsolutePath() + "\n" + ScanCache.fileStamp(folder));
+    }
+
+    /**
+     * JDK 的哈希：lib/modules 有 100MB 以上，所以用 release 文件和 lib/modules 的大小、更新时间代替内容
+     */
+    private static String jrtHash(Path javaHome) throws IOException {
+        Path modules = javaHome.resolve("lib/modules");
+        Path release = javaHome.resolve("release");
+        StringBuilder sb = new StringBuilder("jrt\n").append(javaHome.toAbsolutePath()).append('\n');
+        if (Files.isRegularFile(release)) {
+            sb.append(Files.readString(release, StandardCharsets.UTF_8));
+        }
+        sb.append(Files.size(modules)).append('\n').append(Files.getLastModifiedTime(modules).toMillis());
+        return sha256(sb.toString());
+    }
+
+    private static String sha256(String text) {
+        return HexFormat.of().formatHex(sha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
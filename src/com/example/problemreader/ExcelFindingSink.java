@@ -0,0 +1,144 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+import cn.com.platform.framework.file.ExcelMakeSFile;
+import cn.com.platform.framework.file.ExcelStyleSpec;
+
+/**
+ * 修正一覧的 Excel 输出
+ * 从模板生成自己的 ExcelMakeSFile，所以项目之间可以并行写入。
+ * 模板（表头）只读入一次，之后的行通过 SXSSF 的行窗口（1000 行）写到临时文件，
+ * 不论输出多少行，内存中只保留窗口内的行。
+ * 写过的行不能再读取或修改，所以只能按顺序追加。
+ */
+final class ExcelFindingSink implements FindingSink {
+
+    /** 模板中的输出 sheet */
+    static final String SHEET_NAME = "修正一覧";
+
+    /** 统计的 sheet */
+    static final String STATISTICS_SHEET_NAME = "統計";
+
+    /** B 列（编号）的样式：罫線 + 居中 */
+    private static final ExcelStyleSpec NUMBER_STYLE = new ExcelStyleSpec().border(BorderStyle.THIN)
+            .alignment(HorizontalAlignment.CENTER).verticalAlignment(VerticalAlignment.CENTER);
+
+    /** C～N 列的样式：罫線 + 左上 + 自动换行 */
+    private static final ExcelStyleSpec TEXT_STYLE = new ExcelStyleSpec().border(BorderStyle.THIN)
+            .alignment(HorizontalAlignment.LEFT).verticalAlignment(VerticalAlignment.TOP).wrapText(true);
+
+    public final ExcelMakeSFile excelMakeFile;
+
+    private final Path file;
+
+    /** 最后输出的行（0 开始，模板的最后一行为初始值） */
+    private int lastRowNum;
+
+    /**
+     * 从模板（xlsx 的字节数组）生成报告
+     */
+    ExcelFindingSink(byte[] template, Path file) throws IOException {
+        this.file = file;
+        excelMakeFile = new ExcelMakeSFile(template);
+        // 已经在模板中的行由 XSSF 保持，SXSSF 的 sheet 中只有追加的行
+        lastRowNum = excelMakeFile.workbook.getXSSFWorkbook().getSheet(SHEET_NAME).getLastRowNum();
+    }
+
+    @Override
+    public void accept(Finding finding) {
+        if (finding.caller() == null) return; // 无法取得类型信息时只输出到控制台
+
+        // 输出到excel模板
+        String sheetName = SHEET_NAME;
+        int sheetLastRowNum = ++lastRowNum + 1;
+
+        // 先设置样式（按行列号设置，样式由 ExcelStyleRegistry 共用，模板的默认样式不修改）
+        excelMakeFile.setRangeStyle(sheetName, lastRowNum, lastRowNum, 1, 1, NUMBER_STYLE);   // B
+        excelMakeFile.setRangeStyle(sheetName, lastRowNum, lastRowNum, 2, 13, TEXT_STYLE);   // C～N
+        String prefix = finding.kind() == Finding.Kind.ERROR ? "\n  -> ERROR: " : "\n  -> ";
+        excelMakeFile.setCellValue(sheetName, "B" + sheetLastRowNum, sheetLastRowNum -4);
+        excelMakeFile.setCellValue(sheetName, "C" + sheetLastRowNum, finding.caller());
+        excelMakeFile.setCellValue(sheetName, "D" + sheetLastRowNum, finding.caller() + "  (line " + finding.line() + ")" + prefix + finding.detail());
+        excelMakeFile.setCellValue(sheetName, "J" + sheetLastRowNum, finding.kind().policy);
+        if (finding.suggestion() != null) {
+            excelMakeFile.setCellValue(sheetName, "K" + sheetLastRowNum, finding.suggestion());
+        }
+    }
+
+    /**
+     * 在「統計」sheet 输出各阶段的时间和最慢的编译单元
+     * （SAVE 阶段在这之后，只输出到 JSON）
+     */
+    @Override
+    public void statistics(ScanStatistics statistics) {
+        String sheetName = STATISTICS_SHEET_NAME;
+        excelMakeFile.workbook.createSheet(sheetName);
+
+        excelMakeFile.setCellValue(sheetName, "A1", "段階");
+        excelMakeFile.setCellValue(sheetName, "B1", "経過時間(ms)");
+        excelMakeFile.setCellValue(sheetName, "C1", "CPU時間(ms)");
+        excelMakeFile.setCellValue(sheetName, "D1", "編集単位数");
+        excelMakeFile.setCellValue(sheetName, "E1", "結果件数");
+        excelMakeFile.setCellValue(sheetName, "F1", "件/秒");
+
+        int row = 2;
+        for (ScanStatistics.Phase phase : ScanStatistics.Phase.values()) {
+            excelMakeFile.setCellValue(sheetName, "A" + row, phase.name());
+            excelMakeFile.setCellValue(sheetName, "B" + row, statistics.wallNanos(phase) / 1_000_000);
+            excelMakeFile.setCellValue(sheetName, "C" + row, statistics.cpuNanos(phase) / 1_000_000);
+            excelMakeFile.setCellValue(sheetName, "D" + row, statistics.units(phase));
+            excelMakeFile.setCellValue(sheetName, "E" + row, statistics.findings(phase));
+            excelMakeFile.setCellValue(sheetName, "F" + row, Math.round(statistics.findingsPerSecond(phase)));
+            row++;
+        }
+        excelMakeFile.setCellValue(sheetName, "A" + row, "合計");
+        excelMakeFile.setCellValue(sheetName, "B" + row, statistics.elapsedNanos() / 1_000_000);
+
+        row += 2;
+        excelMakeFile.setCellValue(sheetName, "A" + row, "順位");
+        excelMakeFile.setCellValue(sheetName, "B" + row, "処理時間(ms)");
+        excelMakeFile.setCellValue(sheetName, "C" + row, "結果件数");
+        excelMakeFile.setCellValue(sheetName, "D" + row, "編集単位");
+        int rank = 1;
+        for (ScanStatistics.UnitTime unit : statistics.slowest()) {
+            row++;
+            excelMakeFile.setCellValue(sheetName, "A" + row, rank++);
+            excelMakeFile.setCellValue(sheetName, "B" + row, unit.nanos() / 1_000_000);
+            excelMakeFile.setCellValue(sheetName, "C" + row, unit.findings());
+            excelMakeFile.setCellValue(sheetName, "D" + row, unit.unit());
+        }
+    }
+
+    /**
+     * 输出 Excel 文件（经 1MB 缓冲直接写入文件通道，不经过 byte[]），并关闭 workbook（删除 SXSSF 的临时文件）
+     * 模板是从字节数组读入的，关闭时不会写回任何文件
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            excelMakeFile.writeTo(file);
+        } finally {
+            excelMakeFile.workbook.close();
+        }
+    }
+
+    /**
+     * 不输出文件，只关闭 workbook（删除 SXSSF 的临时文件）
+     * 文件只在 close() 时写出，这里删除的是 close() 中途失败时留下的部分文件
+     */
+    @Override
+    public void abort() throws IOException {
+        try {
+            excelMakeFile.workbook.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.problemreader;
+
+/**
+ * 扫描结果（一行报告）
+ * 由扫描线程生成，之后在主线程按编译单元顺序去重并写入 Excel，
+ * 因此必须是不可变对象。
+ *
+ * @param kind 种类（编译错误 / deprecated 使用）
+ * @param unitName 编译单元文件名（例：Foo.java）
+ * @param caller 编译错误：顶层类全限定名 / deprecated：调用方签名。
+ *               编译错误且无法取得类型信息时为 null（只输出到控制台）
+ * @param line 行号
+ * @param detail 编译错误：错误信息 / deprecated：被调用方签名
+ * @param suggestion 修正建议（K 列），无则为 null
+ */
+record Finding(Kind kind, String unitName, String caller, int line, String detail, String suggestion) {
+
+    /**
+     * 种类
+     */
+    enum Kind {
+        /** 编译错误 */
+        ERROR("削除"),
+        /** deprecated 使用 */
+        DEPRECATED("廃止予定");
+
+        /** J 列的对应方针 */
+        final String policy;
+
+        Kind(String policy) {
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * 去重用的 key（与原来的输出规则保持一致）
+     */
+    String dedupKey() {
+        if (kind == Kind.ERROR) {
+            return unitName + ":" + line + " -> " + detail;
+        }
+        return caller + " -> " + detail;
+    }
+}
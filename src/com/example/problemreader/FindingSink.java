@@ -0,0 +1,52 @@
+package com.example.problemreader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 报告的输出目标
+ * ProjectReport 去重之后按输出顺序调用 accept()，最后调用 close()（扫描失败时改为调用 abort()）。
+ * 保存失败时，已经 close() 的输出目标也调用 abort()，删除已经写出的文件。
+ * 由 -Dproblemreader.sinks 指定使用哪些输出（可以同时使用多个）：
+ * - xlsx：修正一覧的 Excel（默认）
+ * - csv：CSV（UTF-8，RFC 4180）
+ * - jsonl：JSON Lines（一行一个 JSON 对象）
+ * 同一个输出只能由一个线程写入。
+ */
+interface FindingSink extends Closeable {
+
+    /**
+     * 输出一条结果
+     */
+    void accept(Finding finding) throws IOException;
+
+    /**
+     * 输出扫描统计（close() 之前调用一次，不需要的输出什么也不做）
+     */
+    default void statistics(ScanStatistics statistics) throws IOException {
+    }
+
+    /**
+     * 扫描失败时丢弃输出：不写出文件，释放资源，删除已经写出的部分文件
+     * （close() 会写出看起来完整的文件，所以失败时不能调用 close()）
+     */
+    void abort() throws IOException;
+
+    /**
+     * 生成输出
+     *
+     * @param type 输出的种类（xlsx / csv / jsonl）
+     * @param template Excel 模板（xlsx 的字节数组）
+     * @param basePath 输出文件的路径（不含扩展名）
+     */
+    static FindingSink create(String type, byte[] template, Path basePath) throws IOException {
+        Path file = basePath.resolveSibling(basePath.getFileName() + "." + type);
+        return switch (type) {
+            case "xlsx" -> new ExcelFindingSink(template, file);
+            case "csv" -> new CsvFindingSink(file);
+            case "jsonl" -> new JsonlFindingSink(file);
+            default -> throw new IllegalArgumentException("unknown sink : " + type);
+        };
+    }
+}
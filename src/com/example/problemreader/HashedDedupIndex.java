@@ -0,0 +1,182 @@
+package com.example.problemreader;
+
+/**
+ * 只保存 key 的 128 位哈希的去重索引
+ * 哈希（MurmurHash3 x64_128，按 char 计算）两个 long 一组放在 long[] 的开放地址表中
+ * （线性探测，负载率 1/2）。一个 key 不论长短只占 32 字节左右。
+ * (0, 0) 表示空槽，所以哈希结果为 (0, 0) 时换成 (0, 1)。
+ * 非线程安全（和 ProjectReport 一样由一个线程写入）。
+ */
+final class HashedDedupIndex implements DedupIndex {
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /** slot i 的哈希为 table[2i], table[2i + 1] */
+    private long[] table = new long[INITIAL_SLOTS * 2];
+    private int mask = INITIAL_SLOTS - 1;
+    private int size;
+
+    /** 哈希计算用 */
+    private final long[] hash = new long[2];
+
+    @Override
+    public boolean add(String key) {
+        hash(key, hash);
+        return insert(hash[0], hash[1]);
+    }
+
+    /**
+     * key 的 128 位哈希（结果不会是 (0, 0)）
+     * DeprecationIndex 的类型表也使用，改变计算方法时 DeprecationIndex 的 VERSION 要加 1
+     *
+     * @param out 结果 [h1, h2]
+     */
+    static void hash(String key, long[] out) {
+        long h1 = 0;
+        long h2 = 0;
+        // ---------- MurmurHash3 x64_128（16 字节 = 8 char 一块） ----------
+        int length = key.length();
+        int blocks = length >>> 3;
+        for (int b = 0; b < blocks; b++) {
+            int i = b << 3;
+            long k1 = chars(key, i);
+            long k2 = chars(key, i + 4);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // 剩余的 0～7 char
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks << 3;
+        for (int i = tail; i < length; i++) {
+            int shift = ((i - tail) & 3) << 4;
+            if (i - tail < 4) {
+                k1 |= (long) key.charAt(i) << shift;
+            } else {
+                k2 |= (long) key.charAt(i) << shift;
+            }
+        }
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        long bytes = (long) length * 2;
+        h1 ^= bytes;
+        h2 ^= bytes;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+
+        if (h1 == 0 && h2 == 0) {
+            h2 = 1;
+        }
+        out[0] = h1;
+        out[1] = h2;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /**
+     * 加入已经计算好的哈希（DeprecationIndex 的合并用）
+     */
+    boolean insert(long h1, long h2) {
+        int slot = (int) h1 & mask;
+        while (true) {
+            long a = table[slot << 1];
+            long b = table[(slot << 1) + 1];
+            if (a == 0 && b == 0) {
+                break;
+            }
+            if (a == h1 && b == h2) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot << 1] = h1;
+        table[(slot << 1) + 1] = h2;
+        if (++size > (mask + 1) >>> 1) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * 开放地址表（slot i 为 [2i], [2i + 1]，(0, 0) 为空槽，槽数为 2 的幂）
+     * DeprecationIndex 直接写入文件，不要修改
+     */
+    long[] table() {
+        return table;
+    }
+
+    /**
+     * 槽数加倍并重新配置
+     */
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        mask = (mask << 1) | 1;
+        for (int i = 0; i < old.length; i += 2) {
+            long a = old[i];
+            long b = old[i + 1];
+            if (a == 0 && b == 0) continue;
+
+            int slot = (int) a & mask;
+            while (table[slot << 1] != 0 || table[(slot << 1) + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot << 1] = a;
+            table[(slot << 1) + 1] = b;
+        }
+    }
+
+    /** key[i]～key[i + 3] 的 4 个 char → long（little endian） */
+    private static long chars(String key, int i) {
+        return key.charAt(i)
+                | (long) key.charAt(i + 1) << 16
+                | (long) key.charAt(i + 2) << 32
+                | (long) key.charAt(i + 3) << 48;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * JSON Lines 输出（一行一个 JSON 对象）
+ * {"kind":..,"policy":..,"unit":..,"caller":..,"line":..,"detail":..,"suggestion":..}
+ */
+final class JsonlFindingSink extends ChannelFindingSink {
+
+    JsonlFindingSink(Path file) throws IOException {
+        super(file);
+    }
+
+    @Override
+    protected void format(Finding finding, StringBuilder out) {
+        out.append("{\"kind\":");
+        string(out, finding.kind().name());
+        out.append(",\"policy\":");
+        string(out, finding.kind().policy);
+        out.append(",\"unit\":");
+        string(out, finding.unitName());
+        out.append(",\"caller\":");
+        string(out, finding.caller());
+        out.append(",\"line\":").append(finding.line());
+        out.append(",\"detail\":");
+        string(out, finding.detail());
+        out.append(",\"suggestion\":");
+        string(out, finding.suggestion());
+        out.append("}\n");
+    }
+
+    /**
+     * JSON 字符串（null 为 null）
+     */
+    static void string(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译错误信息 → 移行建议（Excel 的 K 列）的规则
+ * 启动时从规则表读取一次，全部的 key 建成一个 MultiStringMatcher，
+ * 每条错误信息只扫描一次就能分类。建成之后只读，可以在扫描线程中共用。
+ *
+ * 规则表（TSV，# 开头为注释）：种类 [TAB] key [TAB] 替换内容
+ * - package：key 为包名，信息中的包名（包括后面的类名）替换成 替换内容 + 剩余部分。
+ *   替换内容为 - 时表示不需要替换（JDK 中的 javax.* 等）。
+ * - removed：key 为包名，删除的包，替换内容为说明文字。
+ * - type：key 为类名（简单名），替换内容为说明文字。后面接着 .名字 时（包名的一部分）不匹配。
+ * 同一条信息中有多个包规则时，采用最长的 key。同一个 key 后面的行优先。
+ */
+final class MigrationRules {
+
+    private enum Kind {
+        PACKAGE, REMOVED, TYPE
+    }
+
+    private record Rule(Kind kind, String key, String replacement) {
+    }
+
+    private final List<Rule> rules;
+    private final MultiStringMatcher matcher;
+
+    private MigrationRules(List<Rule> rules) {
+        this.rules = rules;
+        this.matcher = MultiStringMatcher.of(rules.stream().map(Rule::key).toList());
+    }
+
+    /**
+     * 读取规则表，文件不存在时只使用 javax. → jakarta. 的规则
+     */
+    static MigrationRules load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            System.out.println("[Rules] not found " + file + " : javax -> jakarta only");
+            return new MigrationRules(List.of(new Rule(Kind.PACKAGE, "javax", "jakarta")));
+        }
+
+        Map<String, Rule> rules = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] columns = line.split("\t+");
+            if (columns.length != 3) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + " : 3 columns expected : " + line);
+            }
+            Kind kind = Kind.valueOf(columns[0].strip().toUpperCase());
+            String key = columns[1].strip();
+            String replacement = columns[2].strip();
+            rules.put(key, new Rule(kind, key, "-".equals(replacement) ? null : replacement));
+        }
+        return new MigrationRules(new ArrayList<>(rules.values()));
+    }
+
+    /**
+     * 规则数
+     */
+    int size() {
+        return rules.size();
+    }
+
+    /**
+     * 取得错误信息的移行建议（没有对应的规则时 null）
+     */
+    String suggest(String message) {
+        int[] packageMatch = { -1, -1 }; // rule, start
+        int[] typeMatch = { -1 };
+
+        matcher.scan(message, (pattern, start, end) -> {
+            Rule rule = rules.get(pattern);
+            if (!isBoundary(message, start, end, rule.kind())) {
+                return true;
+            }
+            if (rule.kind() == Kind.TYPE) {
+                if (typeMatch[0] < 0 && rule.replacement() != null) {
+                    typeMatch[0] = pattern;
+                }
+            } else if (packageMatch[0] < 0 || rule.key().length() > rules.get(packageMatch[0]).key().length()) {
+                packageMatch[0] = pattern;
+                packageMatch[1] = start;
+            }
+            return true;
+        });
+
+        StringBuilder suggestion = new StringBuilder();
+        if (packageMatch[0] >= 0) {
+            Rule rule = rules.get(packageMatch[0]);
+            if (rule.replacement() != null) {
+                String name = qualifiedNameAt(message, packageMatch[1]);
+                suggestion.append(name).append("\n  -> ");
+                if (rule.kind() == Kind.PACKAGE) {
+                    suggestion.append(rule.replacement()).append(name, rule.key().length(), name.length());
+                } else {
+                    suggestion.append(rule.replacement());
+                }
+            }
+        }
+        if (typeMatch[0] >= 0) {
+            Rule rule = rules.get(typeMatch[0]);
+            if (suggestion.length() > 0) {
+                suggestion.append('\n');
+            }
+            suggestion.append(rule.key()).append("\n  -> ").append(rule.replacement());
+        }
+        return suggestion.length() > 0 ? suggestion.toString() : null;
+    }
+
+    /**
+     * key 的前后是否是名字的边界
+     * 包名：前面不是名字的一部分，后面是 . 或名字以外
+     * 类名：前面可以是 .（完全限定名的最后），后面是名字以外（不能接着 .名字）
+     */
+    private static boolean isBoundary(String message, int start, int end, Kind kind) {
+        if (start > 0) {
+            char before = message.charAt(start - 1);
+            if (Character.isJavaIdentifierPart(before) || (before == '.' && kind != Kind.TYPE)) {
+                return false;
+            }
+        }
+        if (end < message.length()) {
+            char after = message.charAt(end);
+            if (Character.isJavaIdentifierPart(after)) {
+                return false;
+            }
+            if (after == '.' && kind == Kind.TYPE && end + 1 < message.length()
+                    && Character.isJavaIdentifierStart(message.charAt(end + 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从 start 开始的完全限定名（最后的 . 不包含）
+     */
+    private static String qualifiedNameAt(String message, int start) {
+        int end = start;
+        while (end < message.length()
+                && (Character.isJavaIdentifierPart(message.charAt(end)) || message.charAt(end) == '.')) {
+            end++;
+        }
+        while (end > start && message.charAt(end - 1) == '.') {
+            end--;
+        }
+        return message.substring(start, end);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.problemreader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 多模式字符串匹配（Aho-Corasick）
+ * 所有模式建成一个前缀树 + fail link，文本只扫描一次就能找到全部模式的出现位置，
+ * 与模式数量无关。建成之后只读，可以在多个线程中共用。
+ * 相同的模式只登录一次（报告第一个 index）。
+ */
+final class MultiStringMatcher {
+
+    /**
+     * 匹配结果的回调
+     */
+    @FunctionalInterface
+    interface MatchHandler {
+        /**
+         * @param pattern 模式的 index
+         * @param start 文本中的开始位置
+         * @param end 文本中的结束位置（不含）
+         * @return 继续扫描时 true
+         */
+        boolean onMatch(int pattern, int start, int end);
+    }
+
+    private final int[] patternLengths;
+
+    /** node → 排序后的子节点字符 / 子节点 */
+    private final char[][] labels;
+    private final int[][] children;
+
+    /** node → fail link */
+    private final int[] fail;
+
+    /** node → 在此结束的模式（没有时 -1） */
+    private final int[] output;
+
+    /** node → fail link 上下一个有模式的节点（没有时 -1） */
+    private final int[] dictionary;
+
+    private MultiStringMatcher(int[] patternLengths, char[][] labels, int[][] children, int[] fail, int[] output,
+            int[] dictionary) {
+        this.patternLengths = patternLengths;
+        this.labels = labels;
+        this.children = children;
+        this.fail = fail;
+        this.output = output;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * 建立匹配器（空字符串的模式忽略）
+     */
+    static MultiStringMatcher of(List<String> patterns) {
+        // ---------- 前缀树 ----------
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+
+        int[] patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            patternLengths[p] = pattern.length();
+            if (pattern.isEmpty()) continue;
+
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                    trie.get(node).put(pattern.charAt(i), next);
+                }
+                node = next;
+            }
+            if (outputs.get(node) < 0) {
+                outputs.set(node, p);
+            }
+        }
+
+        // ---------- 转换成数组 ----------
+        int size = trie.size();
+        char[][] labels = new char[size][];
+        int[][] children = new int[size][];
+        int[] output = new int[size];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> map = trie.get(node);
+            labels[node] = new char[map.size()];
+            children[node] = new int[map.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> e : map.entrySet()) {
+                labels[node][i] = e.getKey();
+                children[node][i] = e.getValue();
+                i++;
+            }
+            output[node] = outputs.get(node);
+        }
+
+        // ---------- fail link（广度优先） ----------
+        int[] fail = new int[size];
+        int[] dictionary = new int[size];
+        dictionary[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : children[0]) {
+            fail[child] = 0;
+            dictionary[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < labels[node].length; i++) {
+                char c = labels[node][i];
+                int child = children[node][i];
+
+                int f = fail[node];
+                int target;
+                while ((target = child(labels, children, f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = target >= 0 ? target : 0;
+                dictionary[child] = output[fail[child]] >= 0 ? fail[child] : dictionary[fail[child]];
+                queue.add(child);
+            }
+        }
+        return new MultiStringMatcher(patternLengths, labels, children, fail, output, dictionary);
+    }
+
+    /**
+     * 扫描文本，按结束位置的顺序报告全部的匹配
+     */
+    void scan(CharSequence text, MatchHandler handler) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            node = next(node, text.charAt(i));
+            if (!report(node, i, handler)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 扫描 char[]（源码等，不复制成 String）
+     */
+    void scan(char[] text, MatchHandler handler) {
+        int node = 0;
+        for (int i = 0; i < text.length; i++) {
+            node = next(node, text[i]);
+            if (!report(node, i, handler)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 从 node 读入 c 之后的节点
+     */
+    private int next(int node, char c) {
+        int next;
+        while ((next = child(labels, children, node, c)) < 0 && node != 0) {
+            node = fail[node];
+        }
+        return next >= 0 ? next : 0;
+    }
+
+    /**
+     * 报告在 node（文本位置 i）结束的全部模式，handler 要求中止时 false
+     */
+    private boolean report(int node, int i, MatchHandler handler) {
+        for (int n = output[node] >= 0 ? node : dictionary[node]; n >= 0; n = dictionary[n]) {
+            int pattern = output[n];
+            if (!handler.onMatch(pattern, i + 1 - patternLengths[pattern], i + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int child(char[][] labels, int[][] children, int node, char c) {
+        char[] l = labels[node];
+        int low = 0;
+        int high = l.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (l[mid] < c) {
+                low = mid + 1;
+            } else if (l[mid] > c) {
+                high = mid - 1;
+            } else {
+                return children[node][mid];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.problemreader;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * AST 解析 + DeprecatedVisitor 的 JFR 事件
+ * 逐个解析时一个编译单元一个事件，createASTs 时一个批次一个事件。
+ * 没有记录（JFR 未启动）时事件对象会被 JIT 消除，几乎没有开销。
+ */
+@Name("com.example.problemreader.Parse")
+@Label("Parse Compilation Units")
+@Category({"Problem Reader", "Scan"})
+@Description("ASTParser 解析（包括绑定解析）和 DeprecatedVisitor 的遍历")
+@StackTrace(false)
+final class ParseEvent extends jdk.jfr.Event {
+
+    @Label("Unit")
+    @Description("编译单元的路径（批次时为第一个编译单元）")
+    String unit;
+
+    @Label("Units")
+    int units;
+
+    @Label("Findings")
+    int findings;
+
+    /**
+     * 记录对象时才设置字段并提交
+     */
+    void commit(String unit, int units, int findings) {
+        if (shouldCommit()) {
+            this.unit = unit;
+            this.units = units;
+            this.findings = findings;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.problemreader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IJavaModelMarker;
+
+/**
+ * 项目的编译错误索引
+ * 用一次 IProject.findMarkers 取得项目中全部的 Java problem marker，
+ * 只保留错误，按资源分组。之后每个编译单元只需要查一次 HashMap，
+ * 不用再逐个编译单元经过工作区树和 marker manager。
+ * 建成之后只读，可以在扫描线程中共用。
+ */
+final class ProblemMarkerIndex {
+
+    private static final String[] ATTRIBUTES = { IMarker.SEVERITY, IMarker.LINE_NUMBER, IMarker.MESSAGE };
+
+    /**
+     * 一个编译错误
+     *
+     * @param line 行号（没有时为 -1）
+     * @param message 错误信息
+     */
+    record Problem(int line, String message) {
+    }
+
+    private final Map<IResource, List<Problem>> problems;
+
+    private ProblemMarkerIndex(Map<IResource, List<Problem>> problems) {
+        this.problems = problems;
+    }
+
+    /**
+     * 取得项目全部的 marker 并建立索引
+     */
+    static ProblemMarkerIndex build(IProject project) throws CoreException {
+        IMarker[] markers = project.findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, true, IResource.DEPTH_INFINITE);
+        Map<IResource, List<Problem>> problems = new HashMap<>();
+        if (markers == null) {
+            return new ProblemMarkerIndex(problems);
+        }
+
+        for (IMarker marker : markers) {
+            // 一次取得需要的属性
+            Object[] values = marker.getAttributes(ATTRIBUTES);
+            if (!(values[0] instanceof Integer severity) || severity != IMarker.SEVERITY_ERROR) continue;
+
+            int line = values[1] instanceof Integer i ? i : -1;
+            String message = values[2] instanceof String s ? s : "unknown error";
+            problems.computeIfAbsent(marker.getResource(), r -> new ArrayList<>()).add(new Problem(line, message));
+        }
+        return new ProblemMarkerIndex(problems);
+    }
+
+    /**
+     * 取得资源的编译错误（没有时为空列表）
+     */
+    List<Problem> problemsOf(IResource resource) {
+        return problems.getOrDefault(resource, List.of());
+    }
+
+    /**
+     * 编译错误的件数
+     */
+    int size() {
+        int size = 0;
+        for (List<Problem> list : problems.values()) {
+            size += list.size();
+        }
+        return size;
+    }
+}
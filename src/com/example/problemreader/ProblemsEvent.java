@@ -0,0 +1,47 @@
+package com.example.problemreader;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 编译错误 → 结果（reportProblems）的 JFR 事件
+ * 一个编译单元一个事件。没有记录时几乎没有开销。
+ */
+@Name("com.example.problemreader.Problems")
+@Label("Report Problems")
+@Category({"Problem Reader", "Scan"})
+@Description("从 marker 索引取得编译单元的编译错误并生成移行建议")
+@StackTrace(false)
+final class ProblemsEvent extends jdk.jfr.Event {
+
+    @Label("Unit")
+    String unit;
+
+    @Label("Findings")
+    int findings;
+
+    @Label("Suggestions")
+    @Description("有移行建议（K 列）的件数")
+    int suggestions;
+
+    /**
+     * 记录对象时才设置字段并提交
+     */
+    void commit(String unit, List<Finding> findings) {
+        if (shouldCommit()) {
+            this.unit = unit;
+            this.findings = findings.size();
+            for (Finding finding : findings) {
+                if (finding.suggestion() != null) {
+                    suggestions++;
+                }
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一个项目的报告
+ * 去重之后输出到控制台和 -Dproblemreader.sinks 指定的全部输出（Excel / CSV / JSON Lines）。
+ * 各项目有自己的输出，所以项目之间可以并行写入。
+ * 同一个报告只能由一个线程写入。
+ */
+final class ProjectReport {
+
+    private final List<FindingSink> sinks = new ArrayList<>();
+
+    // 用于去重，避免重复输出相同信息
+    private final DedupIndex reported = DedupIndex.create();
+
+    /**
+     * 生成报告的全部输出
+     *
+     * @param template Excel 模板（xlsx 的字节数组）
+     * @param basePath 输出文件的路径（不含扩展名）
+     */
+    ProjectReport(byte[] template, Path basePath) throws IOException {
+        try {
+            for (String type : ScanOptions.SINKS) {
+                sinks.add(FindingSink.create(type, template, basePath));
+            }
+        } catch (IOException | RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 去重后输出到控制台和全部的输出
+     */
+    void write(Finding finding) {
+        // 避免重复输出
+        if (!reported.add(finding.dedupKey())) return;
+
+        // 多个项目并行时，避免同一条信息被其他项目的输出打断
+        synchronized (System.out) {
+            if (finding.kind() == Finding.Kind.ERROR) {
+                System.out.println((finding.caller() == null ? finding.unitName() : finding.caller()) + "  (line " + finding.line() + ")");
+                System.out.println("  -> ERROR: " + finding.detail());
+            } else {
+                System.out.println(finding.caller() + "  (line " + finding.line() + ")");
+                System.out.println("  -> " + finding.detail());
+            }
+            if (finding.caller() != null && finding.suggestion() != null) {
+                System.out.println(finding.suggestion().replace("\n  ", " "));
+            }
+        }
+
+        try {
+            for (FindingSink sink : sinks) {
+                sink.accept(finding);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 把扫描统计交给全部的输出
+     */
+    void statistics(ScanStatistics statistics) throws IOException {
+        for (FindingSink sink : sinks) {
+            sink.statistics(statistics);
+        }
+    }
+
+    /**
+     * 去重索引的件数和内存占用
+     */
+    String dedupStats() {
+        return "keys=" + reported.size() + ", memory=" + reported.memoryBytes() / 1024 + "KB (" + ScanOptions.DEDUP + ")";
+    }
+
+    /**
+     * 关闭全部的输出（写出文件）
+     */
+    void save() throws IOException {
+        IOException failure = null;
+        for (FindingSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 扫描或保存失败时丢弃全部的输出（不写出文件，删除部分文件和已经写出的文件、临时文件）
+     * 不抛出异常，丢弃时的异常附加到 cause
+     */
+    void abort(Throwable cause) {
+        for (FindingSink sink : sinks) {
+            try {
+                sink.abort();
+            } catch (IOException | RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+}
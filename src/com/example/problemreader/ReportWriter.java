@@ -0,0 +1,239 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 报告的写入线程
+ * 扫描线程把结果（不可变的 Finding 列表）按序号放进队列，
+ * 专用的写入线程一次取出队列中的全部结果，按序号顺序写入 ProjectReport。
+ * AST 解析和 Excel 的格式化可以同时进行。
+ * 序号从 0 开始连续，先到的后面的序号在写入线程中暂存，所以输出顺序不变。
+ * 暂存的范围（重排窗口）有上限：序号 ≥ 下一个要写入的序号 + QUEUE_SIZE 的结果在 submit() 等待，
+ * 前面的序号慢的时候，其他扫描线程的结果也不会无限地堆积在内存中。
+ * 因此扫描线程必须按序号顺序领取工作（下一个要写入的序号总是在处理中，不会在 submit() 等待）。
+ *
+ * 一组结果按种类分为编译错误和 deprecated 使用，报告中全部的编译错误在前：
+ * 编译错误按序号写入，deprecated 使用暂存，可能有编译错误的序号（errorsUntil()）全部写完之后按序号写入，
+ * 之后的序号不再暂存。
+ */
+final class ReportWriter {
+
+    /**
+     * 一组结果
+     */
+    private record Chunk(int seq, List<Finding> errors, List<Finding> deprecations) {
+    }
+
+    /** 结束标记 */
+    private static final Chunk END = new Chunk(-1, List.of(), List.of());
+
+    private final ProjectReport report;
+    private final ScanStatistics statistics;
+    private final BlockingQueue<Chunk> queue;
+    private final Thread thread;
+
+    /** 重排窗口的大小 */
+    private final int window;
+
+    /** 序号 < errorChunks 的结果可能有编译错误（submit() 之前设定，写入线程通过队列看到） */
+    private int errorChunks;
+
+    /** 下一个要写入的序号（lock 保护） */
+    private int written;
+    private final Object lock = new Object();
+
+    /** 写入线程的异常 */
+    private volatile Throwable failure;
+
+    /** 扫描失败，不再写入 */
+    private volatile boolean cancelled;
+
+    /**
+     * 启动写入线程
+     */
+    ReportWriter(ProjectReport report, String name, ScanStatistics statistics) {
+        this.report = report;
+        this.statistics = statistics;
+        this.window = Math.max(1, ScanOptions.QUEUE_SIZE);
+        // 窗口内的结果 + 结束标记，put() 不会等待
+        this.queue = new ArrayBlockingQueue<>(window + 1);
+        this.thread = new Thread(this::run, "report-writer-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 设定可能有编译错误的序号的范围（第一次 submit() 之前调用，不调用时为 0：deprecated 使用不暂存）
+     *
+     * @param chunks 序号 < chunks 的结果可能有编译错误
+     */
+    void errorsUntil(int chunks) {
+        errorChunks = chunks;
+    }
+
+    /**
+     * 放入一组结果（超出重排窗口时等待前面的序号写完）
+     * 写入出错或已经取消时不等待，结果丢弃
+     *
+     * @param seq 序号（0 开始连续）
+     * @param errors 编译错误
+     * @param deprecations deprecated 使用
+     */
+    void submit(int seq, List<Finding> errors, List<Finding> deprecations) throws InterruptedException {
+        synchronized (lock) {
+            while (seq >= written + window && failure == null && !cancelled) {
+                lock.wait();
+            }
+        }
+        if (cancelled) return;
+
+        queue.put(new Chunk(seq, errors, deprecations));
+    }
+
+    /**
+     * 等待全部结果写完，写入线程有异常时抛出
+     */
+    void finish() throws IOException, InterruptedException {
+        queue.put(END);
+        thread.join();
+
+        if (failure instanceof UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+    }
+
+    /**
+     * 扫描失败时：在 submit() 等待的扫描线程不再等待，之后的结果丢弃
+     */
+    void cancel() {
+        cancelled = true;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * 扫描失败时：取消并结束写入线程（已经结束时什么也不做），不抛出异常
+     */
+    void abort() {
+        cancel();
+        if (!thread.isAlive()) return;
+
+        // 取消之后不会再放入结果，队列有空位
+        queue.offer(END);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        Map<Integer, Chunk> pending = new HashMap<>();
+        // 编译错误写完之前的 deprecated 使用（序号顺序）
+        List<List<Finding>> staged = new ArrayList<>();
+        List<Chunk> drained = new ArrayList<>();
+        int next = 0;
+        boolean end = false;
+
+        while (!end) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(new IllegalStateException("report writer interrupted", e));
+                return;
+            }
+            queue.drainTo(drained);
+
+            for (Chunk chunk : drained) {
+                if (chunk == END) {
+                    end = true;
+                } else {
+                    pending.put(chunk.seq(), chunk);
+                }
+            }
+            drained.clear();
+
+            // 出错、取消之后只取出队列
+            if (failure != null || cancelled) {
+                pending.clear();
+                staged.clear();
+                continue;
+            }
+            try {
+                Chunk chunk;
+                while ((chunk = pending.remove(next)) != null) {
+                    write(chunk.errors());
+                    staged.add(chunk.deprecations());
+                    next++;
+                    // 可能有编译错误的序号全部写完之后，暂存的 deprecated 使用按序号写入
+                    if (next >= errorChunks) {
+                        for (List<Finding> deprecations : staged) {
+                            write(deprecations);
+                        }
+                        staged.clear();
+                    }
+                    synchronized (lock) {
+                        written = next;
+                        lock.notifyAll();
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                fail(e);
+                pending.clear();
+                staged.clear();
+            }
+        }
+
+        if (failure == null && !cancelled && !pending.isEmpty()) {
+            fail(new IllegalStateException("missing result " + next + " (pending " + pending.size() + ")"));
+        }
+        // errorsUntil() 大于结果的组数时，剩下的暂存在最后写入
+        if (failure == null && !cancelled) {
+            try {
+                for (List<Finding> deprecations : staged) {
+                    write(deprecations);
+                }
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * 写入一组结果（写入线程）
+     */
+    private void write(List<Finding> findings) {
+        if (findings.isEmpty()) return;
+
+        long wall = System.nanoTime();
+        long cpu = ScanStatistics.cpuTime();
+        findings.forEach(report::write);
+        statistics.add(ScanStatistics.Phase.WRITE, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu,
+                0, findings.size());
+    }
+
+    /**
+     * 记录写入线程的异常，等待中的扫描线程不再等待
+     */
+    private void fail(Throwable e) {
+        failure = e;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+}
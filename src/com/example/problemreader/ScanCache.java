@@ -0,0 +1,277 @@
+package com.example.problemreader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * 增量扫描缓存
+ * 按 编译单元路径 + 内容哈希 保存 DeprecatedVisitor 的结果，内容没有变化的编译单元
+ * 直接重放缓存，不再经过 ASTParser。
+ * 整个缓存文件还带有指纹，下面的任意一个变化时全部作废：
+ * - classpath（jar / JRE / class 文件夹 / 依赖的项目的输出）
+ * - 本项目源码中的 deprecated 声明（本项目的源码不在 classpath 上）。A 调用同一项目的 B.m，
+ *   B.m 加上 / 去掉 @Deprecated 时 A 的内容不变，但 A 的结果变了。
+ *
+ * 注意：编译错误（marker）取决于工作区的构建状态，其他文件变化时也会变，
+ * 而且读取很便宜，所以不缓存，每次重新读取。
+ */
+final class ScanCache {
+
+    /** 文件格式版本（格式、输出内容或指纹的计算方法变化时加 1） */
+    private static final int FORMAT_VERSION = 3;
+
+    private final Path file;
+    private final String fingerprint;
+
+    /** 上次运行的结果 path → entry */
+    private final Map<String, Entry> previous;
+
+    /** 本次运行的结果 path → entry（只保存本次存在的编译单元） */
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    /** 命中件数 */
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private ScanCache(Path file, String fingerprint, Map<String, Entry> previous) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.previous = previous;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private record Entry(String contentHash, List<Finding> findings) {
+    }
+
+    /**
+     * 读取项目的缓存文件，格式或指纹不一致时从空缓存开始
+     *
+     * @param declarations 提到 Deprecated / deprecated 的编译单元（路径|内容哈希，编译单元的顺序）
+     */
+    static ScanCache load(Path file, IJavaProject javaProject, List<String> declarations) throws JavaModelException {
+        return load(file, classpathFingerprint(javaProject), declarations);
+    }
+
+    /**
+     * 读取缓存文件（不使用 Eclipse 的扫描用，classpath 指纹见 classpathFingerprint(List)）
+     */
+    static ScanCache load(Path file, String classpathFingerprint, List<String> declarations) {
+        String fingerprint = classpathFingerprint + "|" + declarationFingerprint(declarations);
+        Map<String, Entry> previous = new ConcurrentHashMap<>();
+
+        if (Files.isRegularFile(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() == FORMAT_VERSION && fingerprint.equals(readString(in))) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String path = readString(in);
+                        String hash = readString(in);
+                        int size = in.readInt();
+                        List<Finding> findings = new ArrayList<>(size);
+                        for (int j = 0; j < size; j++) {
+                            Finding.Kind kind = Finding.Kind.values()[in.readByte()];
+                            findings.add(new Finding(kind, readString(in), readString(in), in.readInt(),
+                                    readString(in), readString(in)));
+                        }
+                        previous.put(path, new Entry(hash, List.copyOf(findings)));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // 缓存损坏时当作没有缓存
+                System.out.println("[Cache] ignored " + file + " : " + e);
+                previous.clear();
+            }
+        }
+        return new ScanCache(file, fingerprint, previous);
+    }
+
+    /**
+     * 计算源文件（文件的字节）的内容哈希
+     */
+    static String contentHash(byte[] content) {
+        return HexFormat.of().formatHex(sha256().digest(content));
+    }
+
+    /**
+     * 取得缓存的结果，内容有变化或没有缓存时返回 null
+     *
+     * @param path 编译单元的路径（工作区中的路径 / 源文件的路径）
+     */
+    List<Finding> lookup(String path, String contentHash) {
+        Entry entry = previous.get(path);
+        if (entry == null || !entry.contentHash().equals(contentHash)) {
+            return null;
+        }
+        current.put(path, entry);
+        hits.incrementAndGet();
+        return entry.findings();
+    }
+
+    /**
+     * 保存本次的结果
+     */
+    void store(String path, String contentHash, List<Finding> findings) {
+        current.put(path, new Entry(contentHash, List.copyOf(findings)));
+    }
+
+    /**
+     * 命中件数
+     */
+    int hits() {
+        return hits.get();
+    }
+
+    /**
+     * 写入缓存文件（先写临时文件再替换，避免中途失败留下损坏的文件）
+     */
+    void save() throws IOException {
+        File dir = file.getParent().toFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, fingerprint);
+            out.writeInt(current.size());
+            for (Map.Entry<String, Entry> e : current.entrySet()) {
+                writeString(out, e.getKey());
+                writeString(out, e.getValue().contentHash());
+                out.writeInt(e.getValue().findings().size());
+                for (Finding f : e.getValue().findings()) {
+                    out.writeByte(f.kind().ordinal());
+                    writeString(out, f.unitName());
+                    writeString(out, f.caller());
+                    out.writeInt(f.line());
+                    writeString(out, f.detail());
+                    writeString(out, f.suggestion());
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * classpath 指纹：解析后的 classpath 条目 + 库（jar / class 文件夹、依赖的项目的输出文件夹）的大小和更新时间
+     * 库的位置由 ClasspathLocations 转换（工作区中的 jar 是工作区的相对路径）
+     */
+    private static String classpathFingerprint(IJavaProject javaProject) throws JavaModelException {
+        MessageDigest digest = sha256();
+        for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+            String line = entry.getEntryKind() + "|" + entry.getPath() + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+        for (Path location : ClasspathLocations.of(javaProject)) {
+            String line = location + "|" + fileStamp(location) + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 不使用 Eclipse 时的 classpath 指纹：各 jar / class 文件夹的大小和更新时间（JDK 为运行中的 JVM）
+     */
+    static String classpathFingerprint(List<Path> locations) {
+        MessageDigest digest = sha256();
+        digest.update((System.getProperty("java.home") + "|" + Runtime.version() + "\n").getBytes(StandardCharsets.UTF_8));
+        for (Path location : locations) {
+            String line = location + "|" + fileStamp(location) + "\n";
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 本项目源码中的 deprecated 声明的指纹
+     * 声明的增加 / 删除都会改变提到 Deprecated / deprecated 的编译单元的内容或集合
+     */
+    private static String declarationFingerprint(List<String> declarations) {
+        MessageDigest digest = sha256();
+        for (String declaration : declarations) {
+            digest.update((declaration + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 文件：大小|更新时间，文件夹：class 文件数|合计大小|最新的更新时间，不存在时为空
+     * DeprecationIndex 的 class 文件夹的缓存也使用
+     */
+    static String fileStamp(Path location) {
+        try {
+            if (Files.isRegularFile(location)) {
+                return Files.size(location) + "|" + Files.getLastModifiedTime(location).toMillis();
+            }
+            if (Files.isDirectory(location)) {
+                long[] stamp = new long[3];
+                try (Stream<Path> files = Files.walk(location)) {
+                    files.filter(file -> file.getFileName().toString().endsWith(".class")).forEach(file -> {
+                        File classFile = file.toFile();
+                        stamp[0]++;
+                        stamp[1] += classFile.length();
+                        stamp[2] = Math.max(stamp[2], classFile.lastModified());
+                    });
+                }
+                return stamp[0] + "|" + stamp[1] + "|" + stamp[2];
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // 读取不到时当作不存在（下次能读取时指纹变化，缓存作废）
+        }
+        return "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * writeUTF 有 64KB 的限制，所以用 长度 + UTF-8 的形式（null 为 -1）
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.problemreader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 扫描参数
+ * 通过 Eclipse Application 的 VM arguments（-Dproblemreader.xxx=...）指定。
+ */
+final class ScanOptions {
+
+    /** 扫描编译单元的并行线程数（1 = 串行） */
+    static final int PARALLELISM = Math.max(1,
+            Integer.getInteger("problemreader.parallelism", Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * ASTParser.createASTs 一次解析的编译单元数（1 以下 = 逐个 createAST）
+     * 越大绑定解析的共享越多，但批次内的 AST 和绑定环境会同时占用内存
+     */
+    static final int BATCH_SIZE = Integer.getInteger("problemreader.batchSize", 50);
+
+    /**
+     * 是否使用增量扫描缓存（内容没有变化的编译单元不再解析）
+     * 本项目源码中的 deprecated 声明可能变化时（提到 Deprecated / deprecated 的编译单元有变化）缓存全部作废
+     */
+    static final boolean CACHE = Boolean.parseBoolean(System.getProperty("problemreader.cache", "true"));
+
+    /**
+     * 扫描对象的项目（逗号分隔，可以使用 * ? 通配符）
+     * 例：-Dproblemreader.projects=Unicorn*,CM*
+     */
+    static final List<Pattern> PROJECTS = toPatterns(System.getProperty("problemreader.projects", "Wildfly_CM00_4_wuxi03"));
+
+    /** 同时扫描并输出报告的项目数（各项目各自持有一个 workbook） */
+    static final int PROJECT_PARALLELISM = Math.max(1, Integer.getInteger("problemreader.projectParallelism", 2));
+
+    /**
+     * 报告去重的冲突策略（hashed = 只保存 128 位哈希 / exact = 保存 key 字符串）
+     */
+    static final String DEDUP = System.getProperty("problemreader.dedup", "hashed");
+
+    /** 移行规则表的路径（没有指定时为 resources/migration-rules.tsv） */
+    static final String RULES = System.getProperty("problemreader.rules");
+
+    /**
+     * 报告的输出（逗号分隔：xlsx / csv / jsonl）
+     * 例：-Dproblemreader.sinks=xlsx,jsonl
+     */
+    static final List<String> SINKS = toList(System.getProperty("problemreader.sinks", "xlsx"));
+
+    /**
+     * 扫描线程 → 写入线程的重排窗口（批次数）
+     * 超出下一个要写入的批次 + 这个数的批次在写入之前等待（写入跟不上、前面的批次慢的时候），
+     * 避免未写入的结果一直增加
+     */
+    static final int QUEUE_SIZE = Integer.getInteger("problemreader.queueSize", 64);
+
+    /** 统计中记录的最慢编译单元数（0 = 不记录） */
+    static final int SLOWEST = Integer.getInteger("problemreader.slowest", 20);
+
+    /**
+     * 是否使用文本预过滤（源码中没有 deprecated API 名字的编译单元不解析）
+     * 名字表中没有的库 API 会漏掉，怀疑漏掉时用 false 做一次全量扫描
+     */
+    static final boolean PREFILTER = Boolean.parseBoolean(System.getProperty("problemreader.prefilter", "true"));
+
+    /** 预过滤的名字表的路径（没有指定时为 resources/deprecated-names.txt） */
+    static final String PREFILTER_NAMES = System.getProperty("problemreader.prefilterNames");
+
+    /**
+     * 预过滤的名字表是否从 classpath 生成（false = 只使用名字表文件）
+     * 名字表从项目 classpath 上的 jar 和 JDK 的 class 文件生成，jar 没有变化时重用 outputdeprecationindex 中的文件
+     */
+    static final boolean INDEX = Boolean.parseBoolean(System.getProperty("problemreader.index", "true"));
+
+    private ScanOptions() {
+    }
+
+    /**
+     * 项目是否是扫描对象
+     */
+    static boolean includesProject(String projectName) {
+        for (Pattern pattern : PROJECTS) {
+            if (pattern.matcher(projectName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 逗号分隔 → 列表（去掉空白和空元素）
+     */
+    private static List<String> toList(String values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values.split(",")) {
+            value = value.trim();
+            if (!value.isEmpty()) {
+                list.add(value);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 通配符列表 → 正则表达式
+     */
+    private static List<Pattern> toPatterns(String globs) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String glob : globs.split(",")) {
+            glob = glob.trim();
+            if (glob.isEmpty()) continue;
+
+            StringBuilder regex = new StringBuilder();
+            for (char c : glob.toCharArray()) {
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            patterns.add(Pattern.compile(regex.toString()));
+        }
+        return patterns;
+    }
+}
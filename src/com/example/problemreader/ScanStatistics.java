@@ -0,0 +1,243 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个项目的扫描统计
+ * 按阶段累计 经过时间 / CPU 时间 / 编译单元数 / 结果件数，并记录最慢的 N 个编译单元。
+ * 经过时间是各线程的合计（并行时会超过项目的实际时间）。
+ * 扫描线程和写入线程同时记录，所以计数用 LongAdder，最慢列表加锁。
+ * 结果输出到 Excel 的「統計」sheet 和 JSON 文件。
+ */
+final class ScanStatistics {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+
+    /**
+     * 阶段
+     */
+    enum Phase {
+        /** 取得 marker，建立编译错误的索引 */
+        MARKERS,
+        /** 编译错误 → 结果 */
+        PROBLEMS,
+        /** 内容哈希的计算和缓存的查找 */
+        CACHE,
+        /** classpath 的 deprecated 名字表的生成 / 读取 */
+        INDEX,
+        /** 文本预过滤（读取源码和名字的扫描） */
+        PREFILTER,
+        /** ASTParser（包括绑定解析） */
+        PARSE,
+        /** DeprecatedVisitor 的遍历 */
+        VISIT,
+        /** 写入报告（去重、控制台、各输出） */
+        WRITE,
+        /** 输出文件 */
+        SAVE
+    }
+
+    /**
+     * 一个阶段的合计
+     */
+    private static final class Totals {
+        final LongAdder wallNanos = new LongAdder();
+        final LongAdder cpuNanos = new LongAdder();
+        final LongAdder units = new LongAdder();
+        final LongAdder findings = new LongAdder();
+    }
+
+    /**
+     * 编译单元的处理时间
+     *
+     * @param unit 编译单元的路径
+     * @param nanos 解析 + 遍历的时间
+     * @param findings 结果件数
+     */
+    record UnitTime(String unit, long nanos, int findings) {
+    }
+
+    private final String project;
+    private final long startNanos = System.nanoTime();
+    private final Map<Phase, Totals> totals = new EnumMap<>(Phase.class);
+
+    /** 最慢的 N 个（最快的在开头） */
+    private final PriorityQueue<UnitTime> slowest = new PriorityQueue<>(Comparator.comparingLong(UnitTime::nanos));
+
+    /** ASTParser 没有返回 AST 的编译单元（没有 deprecated 的结果） */
+    private final List<String> unparsed = new ArrayList<>();
+
+    ScanStatistics(String project) {
+        this.project = project;
+        for (Phase phase : Phase.values()) {
+            totals.put(phase, new Totals());
+        }
+    }
+
+    /**
+     * 当前线程的 CPU 时间（不支持时为 0）
+     */
+    static long cpuTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * 累计一个阶段
+     */
+    void add(Phase phase, long wallNanos, long cpuNanos, int units, int findings) {
+        Totals t = totals.get(phase);
+        t.wallNanos.add(wallNanos);
+        t.cpuNanos.add(cpuNanos);
+        t.units.add(units);
+        t.findings.add(findings);
+    }
+
+    /**
+     * 记录编译单元的处理时间
+     */
+    void unit(String unit, long nanos, int findings) {
+        int limit = ScanOptions.SLOWEST;
+        if (limit <= 0) return;
+
+        synchronized (slowest) {
+            if (slowest.size() < limit) {
+                slowest.add(new UnitTime(unit, nanos, findings));
+            } else if (slowest.peek().nanos() < nanos) {
+                slowest.poll();
+                slowest.add(new UnitTime(unit, nanos, findings));
+            }
+        }
+    }
+
+    /**
+     * 记录 ASTParser 没有返回 AST 的编译单元
+     */
+    void unparsed(String unit) {
+        synchronized (unparsed) {
+            unparsed.add(unit);
+        }
+    }
+
+    /**
+     * ASTParser 没有返回 AST 的编译单元
+     */
+    List<String> unparsed() {
+        synchronized (unparsed) {
+            return List.copyOf(unparsed);
+        }
+    }
+
+    /**
+     * 项目开始后的经过时间
+     */
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 最慢的编译单元（慢的在前）
+     */
+    List<UnitTime> slowest() {
+        List<UnitTime> list;
+        synchronized (slowest) {
+            list = new ArrayList<>(slowest);
+        }
+        list.sort(Comparator.comparingLong(UnitTime::nanos).reversed());
+        return list;
+    }
+
+    long wallNanos(Phase phase) {
+        return totals.get(phase).wallNanos.sum();
+    }
+
+    long cpuNanos(Phase phase) {
+        return totals.get(phase).cpuNanos.sum();
+    }
+
+    long units(Phase phase) {
+        return totals.get(phase).units.sum();
+    }
+
+    long findings(Phase phase) {
+        return totals.get(phase).findings.sum();
+    }
+
+    /**
+     * 每秒的结果件数（经过时间为 0 时为 0）
+     */
+    double findingsPerSecond(Phase phase) {
+        long wall = wallNanos(phase);
+        return wall == 0 ? 0 : findings(phase) * 1_000_000_000d / wall;
+    }
+
+    /**
+     * 控制台用的摘要
+     */
+    String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(project).append(" : ").append(elapsedNanos() / 1_000_000).append("ms");
+        for (Phase phase : Phase.values()) {
+            sb.append(", ").append(phase.name().toLowerCase()).append('=').append(wallNanos(phase) / 1_000_000).append("ms");
+        }
+        List<String> units = unparsed();
+        if (!units.isEmpty()) {
+            sb.append(", unparsed=").append(units.size());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 输出 JSON 文件
+     */
+    void writeJson(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"project\": ");
+        JsonlFindingSink.string(sb, project);
+        sb.append(",\n  \"elapsedMillis\": ").append(elapsedNanos() / 1_000_000);
+        sb.append(",\n  \"cpuTimeSupported\": ").append(CPU_TIME);
+        sb.append(",\n  \"phases\": {");
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            Phase phase = phases[i];
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    \"").append(phase.name().toLowerCase()).append("\": {");
+            sb.append("\"wallMillis\": ").append(wallNanos(phase) / 1_000_000);
+            sb.append(", \"cpuMillis\": ").append(cpuNanos(phase) / 1_000_000);
+            sb.append(", \"units\": ").append(units(phase));
+            sb.append(", \"findings\": ").append(findings(phase));
+            sb.append(", \"findingsPerSecond\": ").append(Math.round(findingsPerSecond(phase)));
+            sb.append('}');
+        }
+        sb.append("\n  },\n  \"slowestUnits\": [");
+        List<UnitTime> units = slowest();
+        for (int i = 0; i < units.size(); i++) {
+            UnitTime unit = units.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"unit\": ");
+            JsonlFindingSink.string(sb, unit.unit());
+            sb.append(", \"millis\": ").append(unit.nanos() / 1_000_000);
+            sb.append(", \"findings\": ").append(unit.findings()).append('}');
+        }
+        sb.append("\n  ],\n  \"unparsedUnits\": [");
+        List<String> unparsedUnits = unparsed();
+        for (int i = 0; i < unparsedUnits.size(); i++) {
+            sb.append(i == 0 ? "\n    " : ",\n    ");
+            JsonlFindingSink.string(sb, unparsedUnits.get(i));
+        }
+        sb.append("\n  ]\n}\n");
+        Files.writeString(file, sb, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 扫描处理的基准测试（不需要 Eclipse 工作区）
+ * 生成合成源码树（SyntheticWorkspace），用 SourceScanner 解析，
+ * 测量 编译单元数/秒、结果件数/秒、堆的峰值。
+ * 并行数、批次大小与插件相同，使用 -Dproblemreader.parallelism / batchSize 指定。
+ *
+ * 运行：以插件的 classpath 作为 Java Application 运行本类（不需要 -data）
+ *   参数：输出目录 [类数=2000] [deprecated 密度=0.05] [编译错误密度=0.02] [内部类层数=1] [种子=1]
+ *   -Dproblemreader.bench.runs=5（测量次数）/ -Dproblemreader.bench.warmup=2（预热次数）
+ *   -Dproblemreader.bench.prefilter=true ... 与插件相同的文本预过滤（名字表 + 源码中的 @Deprecated 声明）。
+ *     名字表与插件相同：-Dproblemreader.index=true（默认）时从 bench.classpath 和运行中的 JDK 建立
+ *     （索引文件放在 输出目录/deprecationindex），false 时使用 -Dproblemreader.prefilterNames 或 resources 的名字表
+ *   -Dproblemreader.bench.cache=true ... 增量扫描缓存（输出目录/benchmark.scancache，每次运行读取上一次运行保存的缓存，
+ *     所以第一次运行是全量扫描，之后是没有变化的源码的重放）
+ *   -Dproblemreader.bench.sources=source根路径 ... 不生成合成源码，测量已有的源码树（只读取，不修改）
+ *   -Dproblemreader.bench.classpath=classpath ... 解析用的 jar（与 StandaloneScanner 相同的写法）
+ * 源码：输出目录/synthetic-workspace/src（只有带标记文件的 synthetic-workspace 才会被清空重建）
+ * 结果：控制台，以及 输出目录/benchmark.jsonl（每次运行追加一行，用于比较）
+ */
+public final class ScannerBenchmark {
+
+    private static final int RUNS = Math.max(1, Integer.getInteger("problemreader.bench.runs", 5));
+    private static final int WARMUP = Math.max(0, Integer.getInteger("problemreader.bench.warmup", 2));
+    private static final boolean PREFILTER = Boolean.getBoolean("problemreader.bench.prefilter");
+    private static final boolean CACHE = Boolean.getBoolean("problemreader.bench.cache");
+    private static final String SOURCES = System.getProperty("problemreader.bench.sources");
+    private static final String CLASSPATH = System.getProperty("problemreader.bench.classpath", "");
+
+    /**
+     * 扫描对象
+     *
+     * @param files 源文件（输出顺序）
+     * @param sourcepath source 根路径
+     * @param classpath 库的 jar / class 目录
+     * @param encoding 源文件的编码
+     */
+    private record Input(List<Path> files, List<Path> sourcepath, List<Path> classpath, Charset encoding) {
+    }
+
+    /**
+     * 读取一次的源文件（预过滤和缓存共用）
+     *
+     * @param contentHash 内容哈希（不使用缓存时为 null）
+     * @param declared 源码中 deprecated 声明的名字表的行
+     */
+    private record Source(Path file, char[] text, String contentHash, Set<String> declared) {
+    }
+
+    /**
+     * 一次测量的结果
+     *
+     * @param parsed 解析的编译单元数
+     * @param skipped 预过滤没有命中的编译单元数
+     * @param replayed 重放缓存的编译单元数
+     */
+    private record Run(long nanos, int units, int errors, int deprecations, int parsed, int skipped, int replayed,
+            long peakHeap) {
+
+        double unitsPerSecond() {
+            return units * 1_000_000_000d / nanos;
+        }
+
+        double findingsPerSecond() {
+            return (errors + deprecations) * 1_000_000_000d / nanos;
+        }
+
+        double skipRate() {
+            return units == 0 ? 0 : (double) skipped / units;
+        }
+    }
+
+    private ScannerBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: ScannerBenchmark <dir> [classes] [deprecatedDensity] [errorDensity] [nesting] [seed]");
+            System.exit(2);
+        }
+        Path dir = Paths.get(args[0]).toAbsolutePath();
+        SyntheticWorkspace.Spec spec = new SyntheticWorkspace.Spec(
+                args.length > 1 ? Integer.parseInt(args[1]) : 2000,
+                args.length > 2 ? Double.parseDouble(args[2]) : 0.05,
+                args.length > 3 ? Double.parseDouble(args[3]) : 0.02,
+                args.length > 4 ? Integer.parseInt(args[4]) : 1,
+                args.length > 5 ? Long.parseLong(args[5]) : 1L);
+
+        List<Path> classpath = StandaloneScanner.paths(CLASSPATH);
+        Input input;
+        if (SOURCES != null) {
+            // 已有的源码树：只读取
+            List<Path> sourcepath = StandaloneScanner.paths(SOURCES);
+            input = new Input(StandaloneScanner.collectFiles(sourcepath), sourcepath, classpath, StandaloneScanner.ENCODING);
+            System.out.println("[Sources] " + SOURCES + " : " + input.files().size() + " units");
+        } else {
+            // 源码生成到专用的子目录（带标记文件），不会清空用户指定的目录本身
+            SyntheticWorkspace.Result workspace = SyntheticWorkspace.generate(dir.resolve("synthetic-workspace"), spec);
+            System.out.println("[Workspace] " + spec + " : " + workspace.files().size() + " units, "
+                    + workspace.bytes() / 1024 + "KB, " + workspace.deprecatedSites() + " deprecated sites, "
+                    + workspace.errorUnits() + " units with errors");
+            input = new Input(workspace.files(), List.of(workspace.root()), classpath, StandardCharsets.UTF_8);
+        }
+
+        Path rulesFile = ScanOptions.RULES != null ? Paths.get(ScanOptions.RULES) : Paths.get("resources", "migration-rules.tsv");
+        MigrationRules rules = MigrationRules.load(rulesFile);
+
+        // 预过滤的名字表（各次运行共用，与插件的启动时 / 项目开始时相同，不算在测量时间内）
+        DeprecationIndex index = null;
+        if (PREFILTER) {
+            index = ScanOptions.INDEX
+                    ? DeprecationIndex.open(classpath, Paths.get(System.getProperty("java.home")), dir.resolve("deprecationindex"))
+                    : DeprecationIndex.of(DeprecatedNameFilter.load(ScanOptions.PREFILTER_NAMES != null
+                            ? Paths.get(ScanOptions.PREFILTER_NAMES) : Paths.get("resources", "deprecated-names.txt")));
+            System.out.println("[Prefilter] " + index.filterKeys().size() + " names, " + index.typeCount() + " types");
+        }
+        Path cacheFile = dir.resolve("benchmark.scancache");
+        if (CACHE) {
+            Files.deleteIfExists(cacheFile);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(ScanOptions.PARALLELISM);
+        List<Run> runs = new ArrayList<>();
+        try {
+            for (int i = 0; i < WARMUP + RUNS; i++) {
+                Run run = run(pool, input, rules, index, CACHE ? cacheFile : null);
+                boolean warmup = i < WARMUP;
+                System.out.printf("[%s %d] %dms, %.0f units/s, %.0f findings/s, errors=%d, deprecations=%d, "
+                        + "parsed=%d, skipped=%d, replayed=%d, peak heap=%dMB%n",
+                        warmup ? "Warmup" : "Run", warmup ? i + 1 : i - WARMUP + 1, run.nanos() / 1_000_000,
+                        run.unitsPerSecond(), run.findingsPerSecond(), run.errors(), run.deprecations(),
+                        run.parsed(), run.skipped(), run.replayed(), run.peakHeap() / (1024 * 1024));
+                if (!warmup) {
+                    runs.add(run);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // 中位数（单位时间的件数越多越好）
+        List<Run> sorted = new ArrayList<>(runs);
+        sorted.sort((a, b) -> Long.compare(a.nanos(), b.nanos()));
+        Run median = sorted.get(sorted.size() / 2);
+        long peakHeap = runs.stream().mapToLong(Run::peakHeap).max().orElse(0);
+        System.out.printf("[Result] median %dms, %.0f units/s, %.0f findings/s, skip rate %.1f%%, max peak heap=%dMB%n",
+                median.nanos() / 1_000_000, median.unitsPerSecond(), median.findingsPerSecond(),
+                median.skipRate() * 100, peakHeap / (1024 * 1024));
+
+        appendJson(dir.resolve("benchmark.jsonl"), spec, median, peakHeap);
+    }
+
+    /**
+     * 扫描一次全部的编译单元
+     * 与 Application 相同的顺序：读取全部源码收集 deprecated 声明 → 建立预过滤 / 读取缓存 →
+     * 各批次中重放缓存、预过滤，剩下的编译单元用 SourceScanner 解析。
+     * 不使用预过滤和缓存时直接交给 SourceScanner（源码由 ASTParser 读取）。
+     * 跳过 / 重放的编译单元没有编译错误的件数（插件中编译错误来自 marker，不需要解析）。
+     */
+    private static Run run(ForkJoinPool pool, Input input, MigrationRules rules, DeprecationIndex index, Path cacheFile)
+            throws IOException, InterruptedException, ExecutionException {
+        System.gc();
+        resetPeakHeap();
+
+        // 每次新建签名格式化的缓存，各次运行的条件相同
+        SourceScanner scanner = new SourceScanner(input.classpath(), input.sourcepath(), input.encoding(),
+                new SignatureFormatter(), rules);
+        ScanStatistics statistics = new ScanStatistics("benchmark");
+        int batchSize = Math.max(1, ScanOptions.BATCH_SIZE);
+        List<Path> files = input.files();
+
+        long start = System.nanoTime();
+        List<Source> sources = null;
+        DeprecatedNameFilter filter = null;
+        ScanCache cache = null;
+        if (index != null || cacheFile != null) {
+            boolean hash = cacheFile != null;
+            sources = pool.submit(() -> files.parallelStream().map(file -> read(file, input.encoding(), hash)).toList()).get();
+        }
+        if (index != null) {
+            Set<String> keys = new LinkedHashSet<>(index.filterKeys());
+            for (Source source : sources) {
+                keys.addAll(source.declared());
+            }
+            filter = DeprecatedNameFilter.of(keys, index);
+        }
+        if (cacheFile != null) {
+            List<String> declarations = new ArrayList<>();
+            for (Source source : sources) {
+                if (DeprecatedNameFilter.mentionsDeprecated(source.text())) {
+                    declarations.add(source.file() + "|" + source.contentHash());
+                }
+            }
+            cache = ScanCache.load(cacheFile, ScanCache.classpathFingerprint(input.classpath()), declarations);
+        }
+
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += batchSize) {
+            List<Integer> batch = new ArrayList<>();
+            for (int j = i; j < Math.min(i + batchSize, files.size()); j++) {
+                batch.add(j);
+            }
+            batches.add(batch);
+        }
+
+        List<Source> read = sources;
+        DeprecatedNameFilter prefilter = filter;
+        ScanCache scanCache = cache;
+        List<int[]> counts = pool.submit(() -> batches.parallelStream()
+                .map(batch -> scanBatch(scanner, batch, files, read, prefilter, scanCache, statistics)).toList()).get();
+        if (cache != null) {
+            cache.save();
+        }
+        long nanos = System.nanoTime() - start;
+
+        int[] total = new int[5];
+        for (int[] count : counts) {
+            for (int i = 0; i < total.length; i++) {
+                total[i] += count[i];
+            }
+        }
+        return new Run(nanos, files.size(), total[0], total[1], total[2], total[3], total[4], peakHeap());
+    }
+
+    /**
+     * 扫描一个批次（缓存命中 → 重放，预过滤没有命中 → 跳过，其他 → 解析）
+     *
+     * @return [编译错误数, deprecated 数, 解析数, 跳过数, 重放数]
+     */
+    private static int[] scanBatch(SourceScanner scanner, List<Integer> batch, List<Path> files, List<Source> sources,
+            DeprecatedNameFilter filter, ScanCache cache, ScanStatistics statistics) {
+        int[] count = new int[5];
+        List<Integer> toParse = new ArrayList<>();
+        for (int i : batch) {
+            if (cache != null) {
+                Source source = sources.get(i);
+                List<Finding> replayed = cache.lookup(source.file().toString(), source.contentHash());
+                if (replayed != null) {
+                    count[1] += replayed.size();
+                    count[4]++;
+                    continue;
+                }
+            }
+            if (filter != null && !filter.isCandidate(sources.get(i).text())) {
+                count[3]++;
+                continue;
+            }
+            toParse.add(i);
+        }
+        if (toParse.isEmpty()) {
+            return count;
+        }
+
+        List<Path> parseFiles = new ArrayList<>(toParse.size());
+        for (int i : toParse) {
+            parseFiles.add(files.get(i));
+        }
+        List<SourceScanner.UnitResult> results = scanner.scanBatch(parseFiles, statistics);
+        for (int j = 0; j < results.size(); j++) {
+            SourceScanner.UnitResult unit = results.get(j);
+            count[0] += unit.errors().size();
+            count[1] += unit.deprecations().size();
+            count[2]++;
+            if (cache != null) {
+                Source source = sources.get(toParse.get(j));
+                cache.store(source.file().toString(), source.contentHash(), unit.deprecations());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 读取一个源文件（内容哈希和 char[] 来自同一次读取）
+     */
+    private static Source read(Path file, Charset encoding, boolean hash) {
+        try {
+            byte[] content = Files.readAllBytes(file);
+            char[] text = DeprecatedNameFilter.decode(content, encoding);
+            return new Source(file, text, hash ? ScanCache.contentHash(content) : null,
+                    DeprecatedNameFilter.declaredNames(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * 各堆内存池的峰值的合计（各池的峰值不一定同时发生，所以是上限）
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void appendJson(Path file, SyntheticWorkspace.Spec spec, Run median, long peakHeap) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"time\":");
+        JsonlFindingSink.string(sb, LocalDateTime.now().toString());
+        if (SOURCES != null) {
+            sb.append(",\"sources\":");
+            JsonlFindingSink.string(sb, SOURCES);
+        } else {
+            sb.append(",\"classes\":").append(spec.classes());
+            sb.append(",\"deprecatedDensity\":").append(spec.deprecatedDensity());
+            sb.append(",\"errorDensity\":").append(spec.errorDensity());
+            sb.append(",\"nesting\":").append(spec.nesting());
+            sb.append(",\"seed\":").append(spec.seed());
+        }
+        sb.append(",\"parallelism\":").append(ScanOptions.PARALLELISM);
+        sb.append(",\"batchSize\":").append(ScanOptions.BATCH_SIZE);
+        sb.append(",\"prefilter\":").append(PREFILTER ? (ScanOptions.INDEX ? "\"index\"" : "\"names\"") : "false");
+        sb.append(",\"cache\":").append(CACHE);
+        sb.append(",\"runs\":").append(RUNS);
+        sb.append(",\"medianMillis\":").append(median.nanos() / 1_000_000);
+        sb.append(",\"unitsPerSecond\":").append(Math.round(median.unitsPerSecond()));
+        sb.append(",\"findingsPerSecond\":").append(Math.round(median.findingsPerSecond()));
+        sb.append(",\"units\":").append(median.units());
+        sb.append(",\"parsed\":").append(median.parsed());
+        sb.append(",\"skipped\":").append(median.skipped());
+        sb.append(",\"replayed\":").append(median.replayed());
+        sb.append(",\"errors\":").append(median.errors());
+        sb.append(",\"deprecations\":").append(median.deprecations());
+        sb.append(",\"peakHeapBytes\":").append(peakHeap);
+        sb.append("}\n");
+        Files.writeString(file, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.problemreader;
+
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+/**
+ * 方法 / 类型签名的格式化
+ * 以绑定 key（IBinding.getKey()）为 key 缓存格式化结果，同一个方法或类型在一个项目中
+ * 只格式化一次。绑定 key 不包含项目（不同项目的同名类型 key 相同），所以每个项目一个实例，
+ * 同一个项目的扫描线程共用。
+ * 输出格式：内部类用 $，方法参数换行显示，方法显示修饰符。
+ */
+final class SignatureFormatter {
+
+    private final Map<String, String> methods = new ConcurrentHashMap<>();
+    private final Map<String, String> types = new ConcurrentHashMap<>();
+    private final Map<String, String> typesWithKeyword = new ConcurrentHashMap<>();
+    private final Map<Integer, String> modifiers = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // ---------- 格式化方法签名 ----------
+    String formatMethod(IMethodBinding mb) {
+        String key = mb.getKey();
+        String cached = key != null ? methods.get(key) : null;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        String owner = formatType(mb.getDeclaringClass());
+        String mods = formatModifiers(mb.getModifiers());
+
+        String params;
+        if (mb.getParameterTypes().length == 0) {
+            params = "";
+        } else {
+            StringBuilder sb = new StringBuilder("\n    ");
+            ITypeBinding[] parameterTypes = mb.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) sb.append(",\n    ");
+                sb.append(formatType(parameterTypes[i]));
+            }
+            params = sb.append("\n").toString();
+        }
+
+        String returnType = formatType(mb.getReturnType());
+
+        String result = (mods.isEmpty() ? "" : mods + " ") + returnType + " " + owner + "." + mb.getName() + "(" + params + ")";
+        if (key != null) {
+            methods.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    // ---------- 格式化类型 ----------
+    String formatType(ITypeBinding tb) {
+        if (tb == null) return "unknown";
+        String key = tb.getKey();
+        String cached = key != null ? types.get(key) : null;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        String result;
+        if (tb.isArray()) {
+            result = formatType(tb.getElementType()) + "[]";
+        } else if (tb.isPrimitive()) {
+            result = tb.getName();
+        } else {
+            String binary = tb.getBinaryName(); // 内部类用 $
+            result = binary != null ? binary : tb.getQualifiedName();
+        }
+        // 递归调用 formatType，所以不使用 computeIfAbsent
+        if (key != null) {
+            types.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    // ---------- 类型 + 关键字 ----------
+    String formatTypeWithKeyword(ITypeBinding tb) {
+        if (tb == null) return "unknown";
+        String key = tb.getKey();
+        String cached = key != null ? typesWithKeyword.get(key) : null;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        String kind;
+        if (tb.isAnnotation()) kind = "@interface";
+        else if (tb.isEnum()) kind = "enum";
+        else if (tb.isInterface()) kind = "interface";
+        else kind = "class";
+
+        String result = kind + " " + formatType(tb);
+        if (key != null) {
+            typesWithKeyword.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    // ---------- 格式化修饰符 ----------
+    String formatModifiers(int mods) {
+        return modifiers.computeIfAbsent(mods, Modifier::toString);
+    }
+
+    /**
+     * 缓存的统计信息
+     */
+    String stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        long rate = h + m == 0 ? 0 : h * 100 / (h + m);
+        return "hits=" + h + ", misses=" + m + " (" + rate + "% hit), entries="
+                + (methods.size() + types.size() + typesWithKeyword.size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.problemreader;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
+
+/**
+ * 不启动 Eclipse 工作区的扫描（直接读取源文件）
+ * ASTParser.setEnvironment 指定 classpath / source 根路径，createASTs 一次解析一批文件。
+ * 编译错误不是从 marker 取得，而是从解析结果的 IProblem 取得（与 marker 的信息相同）。
+ * 建成之后只读，扫描线程各自生成 ASTParser，可以同时调用 scanBatch。
+ */
+final class SourceScanner {
+
+    /**
+     * 一个编译单元的结果
+     *
+     * @param file 源文件
+     * @param errors 编译错误
+     * @param deprecations deprecated 使用
+     */
+    record UnitResult(Path file, List<Finding> errors, List<Finding> deprecations) {
+    }
+
+    private final String[] classpath;
+    private final String[] sourcepath;
+    private final String encoding;
+    private final Map<String, String> compilerOptions;
+    private final SignatureFormatter formatter;
+    private final MigrationRules rules;
+
+    /**
+     * @param classpath 库的 jar / class 目录（JDK 使用运行中的 JVM）
+     * @param sourcepath source 根路径
+     * @param encoding 源文件的编码
+     * @param formatter 签名格式化（一个项目共用一个）
+     * @param rules 编译错误的移行规则
+     */
+    SourceScanner(List<Path> classpath, List<Path> sourcepath, Charset encoding, SignatureFormatter formatter,
+            MigrationRules rules) {
+        this.classpath = classpath.stream().map(Path::toString).toArray(String[]::new);
+        this.sourcepath = sourcepath.stream().map(Path::toString).toArray(String[]::new);
+        this.encoding = encoding.name();
+        this.formatter = formatter;
+        this.rules = rules;
+
+        Map<String, String> options = JavaCore.getOptions();
+        JavaCore.setComplianceOptions(JavaCore.VERSION_21, options);
+        this.compilerOptions = options;
+    }
+
+    /**
+     * 解析一批源文件，按 files 的顺序返回结果
+     */
+    List<UnitResult> scanBatch(List<Path> files, ScanStatistics statistics) {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        ASTParser parser = ASTParser.newParser(AST.JLS21);
+        parser.setResolveBindings(true);     // 开启绑定解析
+        parser.setBindingsRecovery(true);    // 尽量恢复绑定失败
+        parser.setCompilerOptions(compilerOptions);
+        parser.setEnvironment(classpath, sourcepath, sourceEncodings(), true);
+
+        String[] paths = new String[files.size()];
+        String[] encodings = new String[files.size()];
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            paths[i] = files.get(i).toString();
+            encodings[i] = encoding;
+            indexes.put(paths[i], i);
+        }
+
+        // 上一个编译单元遍历结束到这个编译单元交过来之间的时间算作这个编译单元的解析时间
+        long[] last = { System.nanoTime(), ScanStatistics.cpuTime() };
+        UnitResult[] results = new UnitResult[files.size()];
+        parser.createASTs(paths, encodings, new String[0], new FileASTRequestor() {
+            @Override
+            public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+                long parsedWall = System.nanoTime();
+                long parsedCpu = ScanStatistics.cpuTime();
+                statistics.add(ScanStatistics.Phase.PARSE, parsedWall - last[0], parsedCpu - last[1], 1, 0);
+
+                Path file = files.get(indexes.get(sourceFilePath));
+                String unitName = file.getFileName().toString();
+                List<Finding> errors = problems(ast, unitName);
+                long problemsWall = System.nanoTime();
+                long problemsCpu = ScanStatistics.cpuTime();
+                statistics.add(ScanStatistics.Phase.PROBLEMS, problemsWall - parsedWall, problemsCpu - parsedCpu,
+                        1, errors.size());
+
+                DeprecatedVisitor visitor = new DeprecatedVisitor(ast, unitName, formatter);
+                ast.accept(visitor); // 使用自定义 Visitor
+                results[indexes.get(sourceFilePath)] = new UnitResult(file, errors, visitor.findings);
+
+                long visitedWall = System.nanoTime();
+                long visitedCpu = ScanStatistics.cpuTime();
+                statistics.add(ScanStatistics.Phase.VISIT, visitedWall - problemsWall, visitedCpu - problemsCpu,
+                        1, visitor.findings.size());
+                statistics.unit(sourceFilePath, visitedWall - last[0], errors.size() + visitor.findings.size());
+                last[0] = visitedWall;
+                last[1] = visitedCpu;
+            }
+        }, null);
+
+        // 解析失败的文件（读取不到等）没有结果，输出到控制台并记录到统计
+        int findings = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                System.out.println("[Parse] no AST, not reported : " + paths[i]);
+                statistics.unparsed(paths[i]);
+                results[i] = new UnitResult(files.get(i), List.of(), List.of());
+            }
+            findings += results[i].errors().size() + results[i].deprecations().size();
+        }
+        event.commit(paths.length > 0 ? paths[0] : "", files.size(), findings);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 收集编译错误（与 Application.reportProblems 相同的格式）
+     */
+    private List<Finding> problems(CompilationUnit ast, String unitName) {
+        IProblem[] problems = ast.getProblems();
+        if (problems.length == 0) {
+            return List.of();
+        }
+
+        // 顶层类全限定名（包含 package）
+        String fullName = "unknown";
+        if (!ast.types().isEmpty()) {
+            String name = ((AbstractTypeDeclaration) ast.types().get(0)).getName().getIdentifier();
+            fullName = ast.getPackage() != null ? ast.getPackage().getName().getFullyQualifiedName() + "." + name : name;
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        for (IProblem problem : problems) {
+            if (!problem.isError()) continue;
+
+            String message = problem.getMessage();
+            findings.add(new Finding(Finding.Kind.ERROR, unitName, fullName, problem.getSourceLineNumber(), message,
+                    rules.suggest(message)));
+        }
+        return findings;
+    }
+
+    private String[] sourceEncodings() {
+        String[] encodings = new String[sourcepath.length];
+        Arrays.fill(encodings, encoding);
+        return encodings;
+    }
+}
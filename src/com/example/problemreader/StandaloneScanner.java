@@ -0,0 +1,189 @@
+package com.example.problemreader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 不启动 Eclipse 的扫描（构建服务器用）
+ * 不需要 OSGi / -data 工作区，source 根路径和 classpath 由命令行指定，
+ * 用 SourceScanner 解析，编译错误取自解析结果的 IProblem（不是 marker）。
+ * 报告与 Application 相同（Excel「修正一覧」 + -Dproblemreader.sinks 指定的输出 + 统计）。
+ *
+ * 运行：以插件的 classpath 作为 Java Application 运行本类
+ *   参数：项目名 source根路径 [classpath] [输出目录=outputdeprecatedfiles]
+ *   source根路径 / classpath 用路径分隔符（Windows 为 ;）连接多个，以 * 结尾的条目表示目录中全部的 jar
+ *   -Dproblemreader.encoding=UTF-8（源文件的编码）
+ *   模板和移行规则从当前目录的 resources 读取（-Dproblemreader.rules 可以指定规则）
+ * 所有的编译单元都要解析才能取得编译错误，所以不使用预过滤和增量扫描缓存。
+ */
+public final class StandaloneScanner {
+
+    /** 源文件的编码 */
+    static final Charset ENCODING = Charset.forName(System.getProperty("problemreader.encoding", "UTF-8"));
+
+    private StandaloneScanner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: StandaloneScanner <name> <sourceRoots> [classpath] [outputDir]");
+            System.exit(2);
+        }
+        String name = args[0];
+        List<Path> sourcepath = paths(args[1]);
+        List<Path> classpath = args.length > 2 ? paths(args[2]) : List.of();
+        Path outputDir = Paths.get(args.length > 3 ? args[3] : "outputdeprecatedfiles").toAbsolutePath();
+
+        byte[] template = Files.readAllBytes(Paths.get("resources", "Spring移行修正一覧.xlsx"));
+        MigrationRules rules = MigrationRules.load(ScanOptions.RULES != null ? Paths.get(ScanOptions.RULES)
+                : Paths.get("resources", "migration-rules.tsv"));
+        System.out.println("[Rules] " + rules.size() + " rules");
+        System.out.println("[Project] " + name + " : " + sourcepath.size() + " source roots, " + classpath.size()
+                + " classpath entries");
+
+        List<Path> files = collectFiles(sourcepath);
+        Files.createDirectories(outputDir);
+
+        SignatureFormatter formatter = new SignatureFormatter();
+        SourceScanner scanner = new SourceScanner(classpath, sourcepath, ENCODING, formatter, rules);
+        ScanStatistics statistics = new ScanStatistics(name);
+
+        // 各输出的文件名为 项目名 + 时间 + 扩展名
+        DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+        String fileName = name.concat(df.format(LocalDateTime.now()));
+        ProjectReport report = new ProjectReport(template, outputDir.resolve(fileName));
+
+        // 与 Application 相同：扫描线程产生的结果交给写入线程，先全部的编译错误，再 deprecated 使用
+        ReportWriter writer = new ReportWriter(report, name, statistics);
+        try {
+            scan(scanner, files, writer, statistics);
+            writer.finish();
+        } catch (Throwable e) {
+            // 失败时也结束写入线程，丢弃全部输出（不留下看起来完整的部分文件，删除 SXSSF 的临时文件）
+            writer.abort();
+            report.abort(e);
+            throw e;
+        }
+        System.out.println("[Dedup] " + name + " : " + report.dedupStats());
+
+        // 失败时丢弃全部输出（保存到一半的文件也删除）
+        try {
+            report.statistics(statistics);
+            long wall = System.nanoTime();
+            long cpu = ScanStatistics.cpuTime();
+            report.save();
+            statistics.add(ScanStatistics.Phase.SAVE, System.nanoTime() - wall, ScanStatistics.cpuTime() - cpu, 0, 0);
+        } catch (Throwable e) {
+            report.abort(e);
+            throw e;
+        }
+        statistics.writeJson(outputDir.resolve(fileName + ".stats.json"));
+        System.out.println("[Statistics] " + statistics.summary());
+        System.out.println("[Signature cache] " + formatter.stats());
+    }
+
+    /**
+     * 按批次并行解析，每个批次结束就按序号交给写入线程
+     * PARALLELISM 个线程按批次的顺序领取（与 Application.scanInOrder 相同），
+     * 序号小的批次总是先被领取，所以 submit() 等待不会死锁。一个批次失败时不再领取新的批次。
+     * 编译错误取自解析结果，解析之前不知道哪些批次有编译错误，所以 deprecated 使用在写入线程暂存到最后。
+     */
+    private static void scan(SourceScanner scanner, List<Path> files, ReportWriter writer, ScanStatistics statistics)
+            throws InterruptedException, ExecutionException {
+        int batchSize = Math.max(1, ScanOptions.BATCH_SIZE);
+        List<List<Path>> batches = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += batchSize) {
+            batches.add(files.subList(i, Math.min(i + batchSize, files.size())));
+        }
+        writer.errorsUntil(batches.size());
+
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Callable<Void> worker = () -> {
+            try {
+                int i;
+                while (!failed.get() && (i = claimed.getAndIncrement()) < batches.size()) {
+                    List<Finding> errors = new ArrayList<>();
+                    List<Finding> deprecations = new ArrayList<>();
+                    for (SourceScanner.UnitResult unit : scanner.scanBatch(batches.get(i), statistics)) {
+                        errors.addAll(unit.errors());
+                        deprecations.addAll(unit.deprecations());
+                    }
+                    writer.submit(i, errors, deprecations);
+                }
+                return null;
+            } catch (InterruptedException | RuntimeException | Error e) {
+                failed.set(true);
+                writer.cancel();
+                throw e;
+            }
+        };
+
+        int workers = Math.max(1, Math.min(ScanOptions.PARALLELISM, batches.size()));
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            for (Future<Void> future : pool.invokeAll(Collections.nCopies(workers, worker))) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 按 source 根路径 → 包（目录的相对路径）→ 文件名的顺序收集源文件
+     * 这个顺序就是报告的输出顺序
+     */
+    static List<Path> collectFiles(List<Path> sourcepath) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path root : sourcepath) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(".java") && Files.isRegularFile(path))
+                        .sorted((a, b) -> {
+                            // 包（目录）优先，同一个包中按文件名
+                            int c = root.relativize(a.getParent()).toString()
+                                    .compareTo(root.relativize(b.getParent()).toString());
+                            return c != 0 ? c : a.getFileName().toString().compareTo(b.getFileName().toString());
+                        })
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 路径分隔符连接的路径列表，以 * 结尾的条目展开为目录中全部的 jar（与 java -cp 相同）
+     */
+    static List<Path> paths(String arg) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String entry : arg.split(File.pathSeparator)) {
+            if (entry.isBlank()) continue;
+
+            if (entry.endsWith("*")) {
+                Path dir = Paths.get(entry.substring(0, entry.length() - 1)).toAbsolutePath();
+                try (Stream<Path> jars = Files.list(dir)) {
+                    jars.filter(jar -> jar.getFileName().toString().endsWith(".jar")).sorted().forEach(paths::add);
+                }
+            } else {
+                paths.add(Paths.get(entry).toAbsolutePath());
+            }
+        }
+        return paths;
+    }
+}
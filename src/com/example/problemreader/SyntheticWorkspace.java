@@ -0,0 +1,271 @@
+package com.example.problemreader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 基准测试用的合成源码树
+ * 生成 N 个类，deprecated 使用、编译错误、内部类的密度由参数控制。
+ * 相同的参数和种子总是生成相同的源码（可以重复测量、比较）。
+ *
+ * 生成的结构：
+ * - bench/api/LegacyApi.java ... 被调用的 API（deprecated 的类 / 构造 / 方法，以及没有 deprecated 的方法）
+ * - bench/pNNN/ClassNNNNN.java ... 每个包 100 个类。各类有字段、方法和 nesting 层的 static 内部类，
+ *   方法中的每一句以 deprecatedDensity 的概率使用 deprecated API（调用方法 / new 已弃用类 / 已弃用类型的字段）。
+ *   errorDensity 比例的类包含编译错误（未定义的方法，一半还包含找不到的 javax.servlet import）。
+ */
+final class SyntheticWorkspace {
+
+    /** 一个包中的类数 */
+    private static final int CLASSES_PER_PACKAGE = 100;
+
+    /** 每个方法的语句数 */
+    private static final int STATEMENTS_PER_METHOD = 8;
+
+    /** 每个类型（包括内部类）的方法数 */
+    private static final int METHODS_PER_TYPE = 4;
+
+    /** 生成目录的标记文件（只清空带有此文件的目录，防止误删用户的源码） */
+    static final String MARKER = ".problemreader-synthetic";
+
+    /**
+     * 生成参数
+     *
+     * @param classes 类数（LegacyApi 除外）
+     * @param deprecatedDensity 每一句使用 deprecated API 的概率（0～1）
+     * @param errorDensity 包含编译错误的类的比例（0～1）
+     * @param nesting 内部类的层数
+     * @param seed 随机数种子
+     */
+    record Spec(int classes, double deprecatedDensity, double errorDensity, int nesting, long seed) {
+    }
+
+    /**
+     * 生成结果
+     *
+     * @param root source 根路径（生成目录下的 src）
+     * @param files 生成的源文件（LegacyApi 在最前面，之后按包 → 类的顺序）
+     * @param deprecatedSites deprecated API 的使用处数
+     * @param errorUnits 包含编译错误的类数
+     * @param bytes 源文件的合计大小
+     */
+    record Result(Path root, List<Path> files, int deprecatedSites, int errorUnits, long bytes) {
+    }
+
+    private SyntheticWorkspace() {
+    }
+
+    /**
+     * 在 dir 下生成源码树（源码在 dir/src，dir 中放标记文件）
+     * dir 已存在时，只有空目录或带有标记文件的目录（以前生成的）才会清空重建，其他情况抛出 IOException。
+     */
+    static Result generate(Path dir, Spec spec) throws IOException {
+        prepare(dir);
+        Path root = dir.resolve("src");
+        Random random = new Random(spec.seed());
+        List<Path> files = new ArrayList<>();
+        long bytes = 0;
+
+        Path api = root.resolve("bench/api/LegacyApi.java");
+        bytes += write(api, LEGACY_API);
+        files.add(api);
+
+        int deprecatedSites = 0;
+        int errorUnits = 0;
+        for (int i = 0; i < spec.classes(); i++) {
+            String pkg = String.format("p%03d", i / CLASSES_PER_PACKAGE);
+            String name = String.format("Class%05d", i);
+            boolean error = random.nextDouble() < spec.errorDensity();
+            Source source = new Source(random, spec.deprecatedDensity());
+            source.unit(pkg, name, spec.nesting(), error);
+
+            Path file = root.resolve("bench").resolve(pkg).resolve(name + ".java");
+            bytes += write(file, source.text.toString());
+            files.add(file);
+            deprecatedSites += source.deprecatedSites;
+            if (error) {
+                errorUnits++;
+            }
+        }
+        return new Result(root, files, deprecatedSites, errorUnits, bytes);
+    }
+
+    /**
+     * 一个类的源码
+     */
+    private static final class Source {
+        private final Random random;
+        private final double deprecatedDensity;
+        private final StringBuilder text = new StringBuilder(4096);
+        private int deprecatedSites;
+
+        Source(Random random, double deprecatedDensity) {
+            this.random = random;
+            this.deprecatedDensity = deprecatedDensity;
+        }
+
+        void unit(String pkg, String name, int nesting, boolean error) {
+            text.append("package bench.").append(pkg).append(";\n\n");
+            text.append("import bench.api.LegacyApi;\n");
+            if (error && random.nextBoolean()) {
+                text.append("import javax.servlet.http.HttpServletRequest;\n");
+            }
+            text.append('\n');
+            type(name, 0, nesting, error);
+        }
+
+        private void type(String name, int depth, int nesting, boolean error) {
+            String indent = "    ".repeat(depth);
+            text.append(indent).append(depth == 0 ? "public class " : "static class ").append(name).append(" {\n");
+
+            // 字段（deprecated 类型的字段也算作使用处）
+            text.append(indent).append("    private final LegacyApi api = LegacyApi.create();\n");
+            if (deprecated()) {
+                text.append(indent).append("    private LegacyApi.OldType old;\n");
+            }
+
+            for (int m = 0; m < METHODS_PER_TYPE; m++) {
+                method(indent + "    ", m, error && depth == 0 && m == 0);
+            }
+            if (depth < nesting) {
+                type("Inner" + (depth + 1), depth + 1, nesting, false);
+            }
+            text.append(indent).append("}\n");
+        }
+
+        private void method(String indent, int index, boolean error) {
+            text.append(indent).append("public int method").append(index).append("(int value) {\n");
+            text.append(indent).append("    int result = value;\n");
+            for (int s = 0; s < STATEMENTS_PER_METHOD; s++) {
+                text.append(indent).append("    ");
+                if (deprecated()) {
+                    switch (random.nextInt(3)) {
+                    case 0 -> text.append("result += api.oldMethod").append(random.nextInt(4)).append("(result);\n");
+                    case 1 -> text.append("result += new LegacyApi.OldType().hashCode();\n");
+                    default -> text.append("result += new LegacyApi(result).size();\n");
+                    }
+                } else {
+                    text.append("result += api.newMethod").append(random.nextInt(4)).append("(result);\n");
+                }
+            }
+            if (error) {
+                text.append(indent).append("    result += undefinedMethod(result);\n");
+            }
+            text.append(indent).append("    return result;\n");
+            text.append(indent).append("}\n");
+        }
+
+        private boolean deprecated() {
+            if (random.nextDouble() < deprecatedDensity) {
+                deprecatedSites++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final String LEGACY_API = """
+            package bench.api;
+
+            public class LegacyApi {
+
+                @Deprecated
+                public static class OldType {
+                }
+
+                public LegacyApi() {
+                }
+
+                public static LegacyApi create() {
+                    return new LegacyApi();
+                }
+
+                @Deprecated
+                public LegacyApi(int size) {
+                }
+
+                public int size() {
+                    return 0;
+                }
+
+                @Deprecated
+                public int oldMethod0(int value) {
+                    return value;
+                }
+
+                @Deprecated
+                public int oldMethod1(int value) {
+                    return value + 1;
+                }
+
+                @Deprecated(since = "2.0")
+                public int oldMethod2(int value) {
+                    return value + 2;
+                }
+
+                @Deprecated(since = "3.0", forRemoval = true)
+                public int oldMethod3(int value) {
+                    return value + 3;
+                }
+
+                public int newMethod0(int value) {
+                    return value;
+                }
+
+                public int newMethod1(int value) {
+                    return value + 1;
+                }
+
+                public int newMethod2(int value) {
+                    return value + 2;
+                }
+
+                public int newMethod3(int value) {
+                    return value + 3;
+                }
+            }
+            """;
+
+    private static long write(Path file, String text) throws IOException {
+        Files.createDirectories(file.getParent());
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+        return bytes.length;
+    }
+
+    /**
+     * 准备生成目录：不存在则创建，以前生成的则清空，然后写入标记文件
+     */
+    private static void prepare(Path dir) throws IOException {
+        if (Files.exists(dir)) {
+            if (!Files.isDirectory(dir)) {
+                throw new IOException("not a directory: " + dir);
+            }
+            if (!Files.exists(dir.resolve(MARKER)) && !isEmpty(dir)) {
+                throw new IOException("refusing to clear " + dir + " : not a synthetic workspace (no " + MARKER + ")");
+            }
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    if (!path.equals(dir)) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(MARKER), "generated by ScannerBenchmark, may be deleted\n", StandardCharsets.UTF_8);
+    }
+
+    private static boolean isEmpty(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cn.com.platform.framework.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * セル値設定の JFR イベント。
+ * <p>
+ * 呼び出し回数が多いため、既定では 1ms 以上かかった呼び出しだけを記録する。
+ * すべて記録する場合は JFR の設定で threshold を 0 ms にする。
+ * 記録していない場合、イベントの生成はJITで除去されるため負荷はほぼない。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@Name("cn.com.platform.framework.file.SetCellValue")
+@Label("Excel Set Cell Value")
+@Category({"Platform", "Excel"})
+@Description("セルに値を設定する")
+@Threshold("1 ms")
+@StackTrace(false)
+class ExcelCellEvent extends jdk.jfr.Event {
+
+  /** シート名。 */
+  @Label("Sheet")
+  String sheet;
+
+  /** A1形式のセル位置。 */
+  @Label("Cell")
+  String cell;
+
+  /** 値の型。 */
+  @Label("Value Type")
+  String valueType;
+
+  /** 文字列の長さ（文字列以外は 0）。 */
+  @Label("Length")
+  int length;
+
+  /**
+   * 記録対象の場合のみ項目を設定してコミットする。
+   *
+   * @param strSheetName シート名
+   * @param strA1 A1形式のセル位置
+   * @param strValueType 値の型
+   * @param lngLength 文字列の長さ
+   */
+  void commit(String strSheetName, String strA1, String strValueType, int lngLength) {
+    if (shouldCommit()) {
+      sheet = strSheetName;
+      cell = strA1;
+      valueType = strValueType;
+      length = lngLength;
+      commit();
+    }
+  }
+}
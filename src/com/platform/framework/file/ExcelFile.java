@@ -27,6 +27,18 @@ public abstract class ExcelFile {
   public static final int CONVERT_CD_TO_ALPHABET = 26; // 英字変換用
   public static final int CONVERT_CD_TO_NUMBER_STRING = 64; // 数字文字列変換用
 
+  /* Excel（xlsx）のシートの大きさ */
+  public static final int MAX_ROW_COUNT = 1048576; // 最大行数
+  public static final int MAX_COL_COUNT = 16384; // 最大列数（XFD列）
+  private static final int MAX_COL_NAME_LENGTH = 3; // 列名の最大桁数
+
+  /* A1形式の変換表（列名、getRange(int, int) の結果） */
+  private static final int RANGE_CACHE_ROWS = 1024; // キャッシュする行数
+  private static final int RANGE_CACHE_COLS = 64; // キャッシュする列数
+  // 文字列は不変のため、複数スレッドから格納されても同じ値を作成し直すだけになる
+  private static final String[] COL_NAMES = new String[MAX_COL_COUNT];
+  private static final String[][] RANGE_CACHE = new String[RANGE_CACHE_COLS][];
+
   /* コピー方式（コピーの際、コピー先の行指定が相対か絶対か） */
   public static final String COPY_TARGET_ABUSOLUTE = "1"; // 絶対位置
   public static final String COPY_TARGET_RELATIVE = "0"; // 相対位置
@@ -50,9 +62,13 @@ public abstract class ExcelFile {
 
   /**
    * A1形式から行インデックスを取得する。
+   * <p>
+   * 先頭の列部分（英字）と絶対参照の $ を読み飛ばし、残りの数字を行番号とする。
+   * 文字列は一度だけ走査し、新しい文字列を生成しない。
+   * </p>
    * 
    * @param strA1 A1形式
-   * @return 行インデックス
+   * @return 行インデックス（行番号がない、数字以外を含む、最大行数を超える場合は -1）
    */
   public int getRowIndex(String strA1) {
 
@@ -61,23 +77,50 @@ public abstract class ExcelFile {
       return -1;
     }
 
-    // /2.行文字列の取得
-    String strRowString = strA1.replaceAll("[a-zA-Z]", "");
+    // /2.列部分を読み飛ばす
+    int intLength = strA1.length();
+    int i = 0;
+    if (i < intLength && strA1.charAt(i) == '$') {
+      i++;
+    }
+    while (i < intLength && getLetterValue(strA1.charAt(i)) > 0) {
+      i++;
+    }
+    if (i < intLength && strA1.charAt(i) == '$') {
+      i++;
+    }
 
-    // //2.1.取得できなかった場合、-1
-    if (strRowString.length() == 0) {
+    // //2.1.行番号がない場合、-1
+    if (i >= intLength) {
       return -1;
     }
 
-    // /3.行インデックスを返す
-    return Integer.parseInt(strRowString) - 1;
+    // /3.数字部分を行番号に変換する
+    int intRow = 0;
+    for (; i < intLength; i++) {
+      char charData = strA1.charAt(i);
+      if (charData < '0' || charData > '9') {
+        return -1;
+      }
+      intRow = intRow * 10 + (charData - '0');
+      if (intRow > MAX_ROW_COUNT) {
+        return -1;
+      }
+    }
+
+    // /4.行インデックスを返す
+    return intRow - 1;
   }
 
   /**
    * A1形式から列インデックスを取得する。
+   * <p>
+   * 先頭の英字（1～3桁、大文字・小文字を区別しない）を列名とする。XFD列（インデックス 16383）まで。
+   * 文字列は一度だけ走査し、新しい文字列を生成しない。
+   * </p>
    * 
    * @param strA1 A1形式
-   * @return 列インデックス
+   * @return 列インデックス（列名がない、4桁以上、最大列数を超える場合は -1）
    */
   public int getColIndex(String strA1) {
 
@@ -86,68 +129,96 @@ public abstract class ExcelFile {
       return -1;
     }
 
-    // / 2.英字部分を取得する
-    String strColString = strA1.replaceAll("[0-9]", "");
+    // / 2.先頭の英字を26進数として変換する
+    int intLength = strA1.length();
+    int intStart = 0;
+    if (intStart < intLength && strA1.charAt(intStart) == '$') {
+      intStart++;
+    }
+    int intCol = 0;
+    int i = intStart;
+    for (; i < intLength; i++) {
+      int intValue = getLetterValue(strA1.charAt(i));
+      if (intValue == 0) {
+        break;
+      }
+      // // 2.1.英字が4桁以上の場合、-1
+      if (i - intStart >= MAX_COL_NAME_LENGTH) {
+        return -1;
+      }
+      intCol = intCol * CONVERT_CD_TO_ALPHABET + intValue;
+    }
 
-    // / 3.取得した英字が1桁または2桁でない場合、-1
-    if (strColString.length() <= 0 || strColString.length() > 2) {
+    // / 3.英字がない場合、最大列数を超える場合は -1
+    if (i == intStart || intCol > MAX_COL_COUNT) {
       return -1;
     }
 
-    char char1Data = 0; // 英字一桁目
-    char char2Data = 0; // 英字二桁目
-    // / 4.英字の文字コードを取得する
-    // // 4.1.一桁目の英字の文字コードを取得する
-    char1Data = strColString.charAt(0);
-    char1Data -= CONVERT_CD_TO_NUMBER_STRING;
+    // / 4.列インデックスを返す
+    return intCol - 1;
+  }
 
-    // // 4.2.二桁目がある場合、二桁目の英字の文字コードを取得する
-    if (strColString.length() >= 2) {
-      char2Data = strColString.charAt(1);
-      char2Data -= CONVERT_CD_TO_NUMBER_STRING;
-    }
+  /**
+   * 列インデックスから列名（A～XFD）を取得する。
+   * <p>
+   * 列名は列ごとに一度だけ作成し、以降は表の値を返す。
+   * </p>
+   * 
+   * @param intCol 列インデックス
+   * @return 列名（範囲外の場合は空文字）
+   */
+  public String getColName(int intCol) {
 
-    // / 5.列インデックスを返す
-    if (char2Data <= 0) {
-      // // 5.1.一桁の場合
-      return char1Data - 1;
-    } else {
-      // // 5.2.二桁の場合
-      return char1Data * CONVERT_CD_TO_ALPHABET + char2Data - 1;
+    // / 1.範囲外の場合、空文字
+    if (intCol < 0 || intCol >= MAX_COL_COUNT) {
+      return "";
     }
 
+    // / 2.作成済みの列名を返す
+    String strResult = COL_NAMES[intCol];
+    if (strResult == null) {
+      // // 2.1.未作成の場合、列名を作成して表に格納する
+      strResult = createColName(intCol);
+      COL_NAMES[intCol] = strResult;
+    }
+    return strResult;
   }
 
   /**
    * 行インデックス、列インデックスからRangeを取得する。
+   * <p>
+   * 先頭の行・列（{@value #RANGE_CACHE_ROWS} 行 × {@value #RANGE_CACHE_COLS} 列）は一度作成した文字列を返す。
+   * </p>
    * 
    * @param intRow 行インデックス
    * @param intCol 列インデックス
-   * @return インデックス
+   * @return インデックス（範囲外の場合は空文字）
    */
   public String getRange(int intRow, int intCol) {
-    String strResult = "";
 
-    // / 1.インデックスからA1形式の位置文字列を作成する
-    if (intRow < 0 || intCol < 0) {
+    // / 1.範囲外の場合、空文字
+    if (intRow < 0 || intCol < 0 || intRow >= MAX_ROW_COUNT || intCol >= MAX_COL_COUNT) {
       return "";
     }
 
-    // // 1.1.列文字列の作成
-    int intBuf = intCol / CONVERT_CD_TO_ALPHABET;
-    if (intBuf > 0) {
-      strResult += String.valueOf((char) (CONVERT_CD_TO_NUMBER_STRING + intBuf));
+    // / 2.キャッシュ対象外の場合、A1形式の位置文字列を作成する
+    if (intRow >= RANGE_CACHE_ROWS || intCol >= RANGE_CACHE_COLS) {
+      return getColName(intCol).concat(Integer.toString(intRow + 1));
     }
 
-    intBuf = intCol % CONVERT_CD_TO_ALPHABET + 1;
-    strResult += String.valueOf((char) (CONVERT_CD_TO_NUMBER_STRING + intBuf));
-
-    // // 1.2.行文字列の作成
-    strResult += String.valueOf(intRow + 1);
-
-    // /2.作成した値を返す
+    // / 3.作成済みの位置文字列を返す
+    String[] strColumn = RANGE_CACHE[intCol];
+    if (strColumn == null) {
+      strColumn = new String[RANGE_CACHE_ROWS];
+      RANGE_CACHE[intCol] = strColumn;
+    }
+    String strResult = strColumn[intRow];
+    if (strResult == null) {
+      // // 3.1.未作成の場合、位置文字列を作成してキャッシュに格納する
+      strResult = getColName(intCol).concat(Integer.toString(intRow + 1));
+      strColumn[intRow] = strResult;
+    }
     return strResult;
-
   }
 
   /**
@@ -172,6 +243,40 @@ public abstract class ExcelFile {
 
   }
 
+  /**
+   * 英字の値（A=1～Z=26、大文字・小文字を区別しない）を取得する。
+   * 
+   * @param charData 文字
+   * @return 英字の値（英字でない場合は 0）
+   */
+  private static int getLetterValue(char charData) {
+    if (charData >= 'A' && charData <= 'Z') {
+      return charData - CONVERT_CD_TO_NUMBER_STRING;
+    }
+    if (charData >= 'a' && charData <= 'z') {
+      return charData - 'a' + 1;
+    }
+    return 0;
+  }
+
+  /**
+   * 列インデックスから列名を作成する。
+   * 
+   * @param intCol 列インデックス
+   * @return 列名
+   */
+  private static String createColName(int intCol) {
+    char[] charName = new char[MAX_COL_NAME_LENGTH];
+    int intPos = charName.length;
+    int intBuf = intCol + 1;
+    while (intBuf > 0) {
+      intBuf--;
+      charName[--intPos] = (char) (CONVERT_CD_TO_NUMBER_STRING + 1 + intBuf % CONVERT_CD_TO_ALPHABET);
+      intBuf /= CONVERT_CD_TO_ALPHABET;
+    }
+    return new String(charName, intPos, charName.length - intPos);
+  }
+
   /**
    * 標準日付書式を返します。
    * 
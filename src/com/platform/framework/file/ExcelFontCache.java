@@ -0,0 +1,84 @@
+package cn.com.platform.framework.file;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * 色を変えたフォントのキャッシュ（ExcelMakeFile / ExcelMakeSFile 共通）。
+ * <p>
+ * コピー元フォントと色が同じ場合は、フォントを生成せずに既存のフォントを返す。
+ * キーには BeanUtils.copyProperties でコピーされるプロパティを全て含める。
+ * </p>
+ *
+ * @param <F> フォントの型
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+public class ExcelFontCache<F extends Font> {
+
+  /** フォントの生成（workbook::createFont）。 */
+  private final Supplier<F> factory;
+
+  /** コピー元フォントの全プロパティ|色 → フォント。 */
+  private final Map<String, F> fontMap = new HashMap<>();
+
+  /**
+   * ExcelFontCache を構築する。
+   *
+   * @param factory フォントの生成
+   */
+  public ExcelFontCache(Supplier<F> factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * コピー元フォントの色を変えたフォントを取得する。
+   * <p>
+   * キャッシュしたフォントが getFont() 経由で変更されていたら作り直す。
+   * </p>
+   *
+   * @param origFont コピー元フォント
+   * @param fontColor 色
+   * @return フォント
+   * @throws org.springframework.beans.BeansException プロパティのコピーに失敗した場合
+   */
+  public F getFont(Font origFont, short fontColor) {
+    String fontKey = fontKey(origFont, fontColor);
+    F font = fontMap.get(fontKey);
+    if (font == null || !fontKey.equals(fontKey(font, fontColor))) {
+      font = factory.get();
+      BeanUtils.copyProperties(origFont, font);
+      font.setColor(fontColor);
+      fontMap.put(fontKey, font);
+    }
+    return font;
+  }
+
+  /**
+   * キャッシュのキーを作成する。
+   * <p>
+   * BeanUtils.copyProperties でコピーされるプロパティを全て含める（色は変更後の色）。
+   * </p>
+   *
+   * @param font フォント
+   * @param fontColor 色
+   * @return キー
+   */
+  static String fontKey(Font font, short fontColor) {
+    StringBuilder key = new StringBuilder();
+    key.append(font.getFontName()).append('|').append(font.getFontHeight()).append('|').append(font.getBold())
+        .append('|').append(font.getItalic()).append('|').append(font.getUnderline()).append('|')
+        .append(font.getStrikeout()).append('|').append(font.getTypeOffset()).append('|').append(font.getCharSet());
+    if (font instanceof XSSFFont) {
+      XSSFFont xssfFont = (XSSFFont) font;
+      key.append('|').append(xssfFont.getFamily()).append('|').append(xssfFont.getScheme()).append('|')
+          .append(xssfFont.getThemeColor());
+    }
+    return key.append('|').append(fontColor).toString();
+  }
+}
@@ -6,11 +6,17 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.TypeUtils;
@@ -38,7 +44,6 @@ import org.apache.poi.xssf.usermodel.XSSFName;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.beans.BeanUtils;
 import org.springframework.util.NumberUtils;
 
 import cn.com.platform.framework.common.exception.SystemException;
@@ -58,19 +63,13 @@ public class ExcelMakeFile extends ExcelFile {
   /** ワークブック。 */
   public XSSFWorkbook workbook;
 
-  /** 英字変換用。 */
-  static final int CONVERT_CD_TO_ALPHABET = 26;
-
-  /** 数字文字列変換用。 */
-  static final int CONVERT_CD_TO_NUMBER_STRING = 64;
-  
   XSSFCellStyle borderStyle;
   
-  // style缓存
-  private Map<String, CellStyle> styleCache = new HashMap<>();
+  /** セルスタイルの登録簿（初回使用時に生成する）。 */
+  private ExcelStyleRegistry styleRegistry;
 
-  // font缓存
-  private Map<String, XSSFFont> fontCache = new HashMap<>();
+  // font缓存（コピー元フォントの全プロパティ|色 → フォント）
+  private final ExcelFontCache<XSSFFont> fontCache = new ExcelFontCache<>(() -> workbook.createFont());
 
   /**
    * ExcelMakeFile を構築する。
@@ -185,11 +184,17 @@ public class ExcelMakeFile extends ExcelFile {
 
   /**
    * Excelファイルのバイト配列を返却する。
+   * <p>
+   * ブック全体をメモリ上に複製するため、小さなファイルに限って使用する。
+   * ファイル等に出力する場合は {@link #writeTo(Path)} を使用する。
+   * </p>
    *
    * @return byte[] ファイルのバイト配列
    * @throws IOException 読み込みでエラーが発生した場合スロー
    */
   public byte[] getBytes() throws SystemException {
+    ExcelWriteEvent event = new ExcelWriteEvent();
+    event.begin();
 
     if (workbook.getNumberOfSheets() > 0) {
       for (Sheet xssfSheet : workbook) {
@@ -208,6 +213,8 @@ public class ExcelMakeFile extends ExcelFile {
       // 不要オブジェクトを破棄する
       outstream = null;
 
+      event.commit("getBytes", false, fileByte.length);
+
       // バイト配列を返却する
       return fileByte;
     } catch (IOException e) {
@@ -227,6 +234,8 @@ public class ExcelMakeFile extends ExcelFile {
    * @throws IOException 読み込みでエラーが発生した場合スロー
    */
   public boolean outputFile(String strOutputPath) throws IOException {
+    ExcelWriteEvent event = new ExcelWriteEvent();
+    event.begin();
 
     // 出力ファイルオブジェクトを生成する
     FileOutputStream outfile = new FileOutputStream(strOutputPath);
@@ -238,13 +247,84 @@ public class ExcelMakeFile extends ExcelFile {
     boolean blnResult = true;
 
     // 不要オブジェクトを破棄する
+    long lngBytes = outfile.getChannel().position();
     outfile.close();
     outfile = null;
 
+    event.commit("outputFile", false, lngBytes);
+
     // 出力結果を返却する
     return blnResult;
   }
 
+  /**
+   * Excelファイルを指定されたファイルに出力する。
+   * <p>
+   * バイト配列を経由せず、ファイルのチャネルに直接出力する。ファイルが存在する場合は上書きする。
+   * </p>
+   *
+   * @param path 出力先のファイル
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  public long writeTo(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      return writeTo(channel);
+    }
+  }
+
+  /**
+   * Excelファイルを指定されたチャネルに出力する。チャネルは閉じない。
+   *
+   * @param channel 出力先のチャネル
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  public long writeTo(WritableByteChannel channel) throws IOException {
+    return writeTo(new ExcelOutputStream(channel));
+  }
+
+  /**
+   * Excelファイルを指定されたストリームに出力する。ストリームは閉じない。
+   *
+   * @param out 出力先のストリーム
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  public long writeTo(OutputStream out) throws IOException {
+    return writeTo(new ExcelOutputStream(out));
+  }
+
+  /**
+   * Excelファイルをバッファ付きのストリームに出力する。
+   *
+   * @param out 出力先のストリーム
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  private long writeTo(ExcelOutputStream out) throws IOException {
+    ExcelWriteEvent event = new ExcelWriteEvent();
+    event.begin();
+
+    // / 1.数式を開いた時に再計算させる
+    if (workbook.getNumberOfSheets() > 0) {
+      for (Sheet xssfSheet : workbook) {
+        // 强制公式自动计算
+        xssfSheet.setForceFormulaRecalculation(true);
+      }
+    }
+
+    // / 2.Excelファイルを出力し、バッファの内容を出力先に渡す
+    workbook.write(out);
+    out.close();
+
+    event.commit("writeTo", false, out.getCount());
+
+    // / 3.出力したバイト数を返却する
+    return out.getCount();
+  }
+
   /**
    * 行のインスタンスを生成する。
    *
@@ -364,14 +444,11 @@ public class ExcelMakeFile extends ExcelFile {
     if (sheet == null) {
       return;
     }
-    // セルを取得する
-    CellStyle cellStyle = getCellStyle(strSheetName, strA1);
+    // 太字、セル内の水平方向の位置を設定する（共有スタイルは変更しない）
     Font font = getCreateFont();
     font.setBold(true);
-    cellStyle.setFont(font);
-    // セル内の水平方向の位置を設定する
-    cellStyle.setAlignment(HorizontalAlignment.CENTER);
-    setCellStyle(strSheetName, strA1, cellStyle);
+    updateCellStyle(strSheetName, strA1,
+        descriptor -> descriptor.withFontIndex(font.getIndex()).withAlignment(HorizontalAlignment.CENTER));
   }
 
   /**
@@ -480,36 +557,19 @@ public class ExcelMakeFile extends ExcelFile {
    * @param strValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, String strValue) {
-    // ローカル変数宣言 //
-    XSSFSheet sheet = null; // シート
-    XSSFCell cell = null; // セル
-    XSSFCellStyle style = null;
+    ExcelCellEvent event = new ExcelCellEvent();
+    event.begin();
 
     // / 1.シートを取得する
-    sheet = getSheet(strSheetName);
+    XSSFSheet sheet = getSheet(strSheetName);
     if (sheet == null) {
       return;
     }
 
-    // / 2.セルを取得する
-    cell = getCell(sheet, strA1);
-
-    // / 3.セルのエンコーディングを指定する
-    // cell.setEncoding(XSSFCell.ENCODING_UTF_16);
+    // / 2.セルに値を設定する
+    writeCellValue(getCell(sheet, strA1), strValue);
 
-    // / 4.セル内改行を設定する
-    if (strValue != null && strValue.indexOf(CELL_INNER_NEW_LINE_CHAR) > -1) {
-      style = cell.getCellStyle();
-      style.setWrapText(true);
-      cell.setCellStyle(style);
-    }
-
-    // / 5.セルに値を設定する
-    cell.setCellValue(strValue);
-
-    // / 6.不要オブジェクトを破棄する
-    sheet = null;
-    cell = null;
+    event.commit(strSheetName, strA1, "String", strValue == null ? 0 : strValue.length());
   }
 
   /**
@@ -520,34 +580,14 @@ public class ExcelMakeFile extends ExcelFile {
    * @param dateValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, Date dateValue) {
-    // ローカル変数宣言 //
-    XSSFSheet sheet = null; // シート
-    XSSFCell cell = null; // セル
-
     // / 1.シートを取得する
-    sheet = getSheet(strSheetName);
+    XSSFSheet sheet = getSheet(strSheetName);
     if (sheet == null) {
       return;
     }
 
-    // / 2.セルを取得する
-    cell = getCell(sheet, strA1);
-
-    // / 3.セルのエンコーディングを指定する
-    // cell.setEncoding(XSSFCell.ENCODING_UTF_16);
-
-    // / 4.EXCEL日付を数値として取得する
-    if (dateValue == null) {
-      return;
-    }
-    double excelDate = DateUtil.getExcelDate(dateValue);
-
-    // / 5.セルに値を設定する
-    cell.setCellValue(excelDate);
-
-    // / 6.不要オブジェクトを破棄する
-    sheet = null;
-    cell = null;
+    // / 2.セルに値を設定する
+    writeCellValue(getCell(sheet, strA1), dateValue);
   }
 
   /**
@@ -560,41 +600,14 @@ public class ExcelMakeFile extends ExcelFile {
    */
   public void setCellValue(String strSheetName, String strA1, Date dateValue,
       String strDateFormat) {
-    // ローカル変数宣言 //
-    XSSFSheet sheet = null; // シート
-    XSSFCell cell = null; // セル
-
     // / 1.シートを取得する
-    sheet = getSheet(strSheetName);
+    XSSFSheet sheet = getSheet(strSheetName);
     if (sheet == null) {
       return;
     }
 
-    // / 2.セルを取得する
-    cell = getCell(sheet, strA1);
-
-    // / 3.セルのエンコーディングを指定する
-    // cell.setEncoding(XSSFCell.ENCODING_UTF_16);
-
-    // / 4.セルの日付書式を設定する
-    // // 4.1.対象セルの書式を取得する
-    XSSFCellStyle cellStyle = null; // セル書式
-    XSSFDataFormat format = null; // 日付書式
-    cellStyle = cell.getCellStyle();
-    format = workbook.createDataFormat();
-
-    // // 4.2.任意の日付書式を設定する
-    cellStyle.setDataFormat(format.getFormat(strDateFormat));
-    cell.setCellStyle(cellStyle);
-
-    // / 5.セルに値を設定する
-    cell.setCellValue(dateValue);
-
-    // / 6.不要オブジェクトを破棄する
-    sheet = null;
-    cell = null;
-    cellStyle = null;
-    format = null;
+    // / 2.セルに値と日付書式を設定する
+    writeCellValue(getCell(sheet, strA1), dateValue, strDateFormat);
   }
 
   /**
@@ -605,60 +618,42 @@ public class ExcelMakeFile extends ExcelFile {
    * @param lngValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, long lngValue) {
-    // ローカル変数宣言 //
-    XSSFSheet sheet = null; // シート
-    XSSFCell cell = null; // セル
+    ExcelCellEvent event = new ExcelCellEvent();
+    event.begin();
 
     // / 1.シートを取得する
-    sheet = getSheet(strSheetName);
+    XSSFSheet sheet = getSheet(strSheetName);
     if (sheet == null) {
       return;
     }
 
-    // / 2.セルを取得する
-    cell = getCell(sheet, strA1);
-
-    // / 3.セルのエンコーディングを指定する
-    // cell.setEncoding(XSSFCell.ENCODING_UTF_16);
+    // / 2.セルに値を設定する
+    getCell(sheet, strA1).setCellValue(lngValue);
 
-    // / 4.セルに値を設定する
-    cell.setCellValue(lngValue);
-
-    // / 5.不要オブジェクトを破棄する
-    sheet = null;
-    cell = null;
+    event.commit(strSheetName, strA1, "long", 0);
   }
 
   /**
-   * セルに値を設定する(BigDecimal型)。
+   * セルに値を設定する(double型)。
    *
    * @param strSheetName 値を設定するシート名
    * @param strA1 A1形式のセル位置
    * @param dblValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, double dblValue) {
-    // ローカル変数宣言 //
-    XSSFSheet sheet = null; // シート
-    XSSFCell cell = null; // セル
+    ExcelCellEvent event = new ExcelCellEvent();
+    event.begin();
 
     // / 1.シートを取得する
-    sheet = getSheet(strSheetName);
+    XSSFSheet sheet = getSheet(strSheetName);
     if (sheet == null) {
       return;
     }
 
-    // / 2.セルを取得する
-    cell = getCell(sheet, strA1);
+    // / 2.セルに値を設定する
+    getCell(sheet, strA1).setCellValue(dblValue);
 
-    // / 3.セルのエンコーディングを指定する
-    // cell.setEncoding(XSSFCell.ENCODING_UTF_16);
-
-    // / 4.セルに値を設定する
-    cell.setCellValue(dblValue);
-
-    // / 5.不要オブジェクトを破棄する
-    sheet = null;
-    cell = null;
+    event.commit(strSheetName, strA1, "double", 0);
   }
 
   /**
@@ -669,37 +664,96 @@ public class ExcelMakeFile extends ExcelFile {
    * @param bdecValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, BigDecimal bdecValue) {
-    // ローカル変数宣言 //
-    XSSFSheet sheet = null; // シート
-    XSSFCell cell = null; // セル
-
     // / 1.シートを取得する
-    sheet = getSheet(strSheetName);
+    XSSFSheet sheet = getSheet(strSheetName);
     if (sheet == null) {
       return;
     }
 
-    // / 2.セルを取得する
-    cell = getCell(sheet, strA1);
+    // / 2.セルに値を設定する
+    writeCellValue(getCell(sheet, strA1), bdecValue);
+  }
 
-    // / 3.セルのエンコーディングを指定する
-    // cell.setEncoding(XSSFCell.ENCODING_UTF_16);
+  /**
+   * セルに値を設定する(String型)。
+   * <p>
+   * A1形式の setCellValue と {@link ExcelRowWriter} で共通の処理。
+   * </p>
+   *
+   * @param cell セル
+   * @param strValue 設定する値
+   */
+  void writeCellValue(XSSFCell cell, String strValue) {
+    // / 1.セル内改行を設定する
+    if (strValue != null && strValue.indexOf(CELL_INNER_NEW_LINE_CHAR) > -1) {
+      cell.setCellStyle(getStyleRegistry().getStyle(cell.getCellStyle(), descriptor -> descriptor.withWrapText(true)));
+    }
 
-    // / 4.セルに値を設定する
-    String defaultValue = null;
-    if (bdecValue != null) {
-      if (bdecValue.compareTo(BigDecimal.ZERO) == 0) {
-        cell.setCellValue(defaultValue);
-      } else {
-        cell.setCellValue(bdecValue.doubleValue());
-      }
+    // / 2.セルに値を設定する
+    cell.setCellValue(strValue);
+  }
+
+  /**
+   * セルに値を設定する(Date型)。値が null の場合は何もしない。
+   *
+   * @param cell セル
+   * @param dateValue 設定する値
+   */
+  void writeCellValue(XSSFCell cell, Date dateValue) {
+    if (dateValue == null) {
+      return;
+    }
+
+    // EXCEL日付を数値として設定する
+    cell.setCellValue(DateUtil.getExcelDate(dateValue));
+  }
+
+  /**
+   * セルに値と日付書式を設定する(Date型)。
+   *
+   * @param cell セル
+   * @param dateValue 設定する値
+   * @param strDateFormat 日付フォーマット
+   */
+  void writeCellValue(XSSFCell cell, Date dateValue, String strDateFormat) {
+    // / 1.任意の日付書式を設定する
+    XSSFDataFormat format = workbook.createDataFormat();
+    short intFormat = format.getFormat(strDateFormat);
+    cell.setCellStyle(getStyleRegistry().getStyle(cell.getCellStyle(), descriptor -> descriptor.withDataFormat(intFormat)));
+
+    // / 2.セルに値を設定する
+    cell.setCellValue(dateValue);
+  }
+
+  /**
+   * セルに値を設定する(BigDecimal型)。値が null または 0 の場合は空白にする。
+   *
+   * @param cell セル
+   * @param bdecValue 設定する値
+   */
+  void writeCellValue(XSSFCell cell, BigDecimal bdecValue) {
+    if (bdecValue == null || bdecValue.compareTo(BigDecimal.ZERO) == 0) {
+      cell.setCellValue((String) null);
     } else {
-      cell.setCellValue(defaultValue);
+      cell.setCellValue(bdecValue.doubleValue());
     }
+  }
 
-    // / 5.不要オブジェクトを破棄する
-    sheet = null;
-    cell = null;
+  /**
+   * シートの行書き込みを取得する。
+   * <p>
+   * 行・列のインデックスで値を設定する。シートの検索とA1形式の変換を行わないため、大量の書き込みに使用する。
+   * </p>
+   *
+   * @param strSheetName シート名
+   * @return ExcelRowWriter 行書き込み（シートが存在しない場合は null）
+   */
+  public ExcelRowWriter getRowWriter(String strSheetName) {
+    XSSFSheet sheet = getSheet(strSheetName);
+    if (sheet == null) {
+      return null;
+    }
+    return new ExcelRowWriter(this, sheet);
   }
 
   /**
@@ -1457,54 +1511,39 @@ public class ExcelMakeFile extends ExcelFile {
     return borderStyle;
   }
   
-  // =============================
-  // 核心方法：复制style 20260310 add
-  // =============================
-  private CellStyle copyCellStyle(String sheetName, String range) {
-
-      CellStyle oldStyle = getCellStyle(sheetName, range);
-
-      XSSFCellStyle newStyle = workbook.createCellStyle();
-
-      if (oldStyle != null) {
-          newStyle.cloneStyleFrom(oldStyle);
-      }
-
-      String key = buildStyleKey(newStyle);
-
-      if (styleCache.containsKey(key)) {
-          return styleCache.get(key);
-      }
-
-      styleCache.put(key, newStyle);
-
-      return newStyle;
+  /**
+   * セルスタイルの登録簿を取得する。
+   *
+   * @return ExcelStyleRegistry セルスタイルの登録簿
+   */
+  public ExcelStyleRegistry getStyleRegistry() {
+    if (styleRegistry == null) {
+      styleRegistry = new ExcelStyleRegistry(workbook);
+    }
+    return styleRegistry;
   }
 
+  /**
+   * セルのスタイルを変更する。
+   * <p>
+   * セルの現在のスタイルを変更した内容のスタイルを登録簿から取得して設定する。
+   * 共有されているスタイルは変更しないため、他のセルに影響しない。
+   * </p>
+   *
+   * @param strSheetName シート名
+   * @param range A1形式のセル位置
+   * @param change 変更内容
+   */
+  private void updateCellStyle(String strSheetName, String range, UnaryOperator<ExcelStyleDescriptor> change) {
+    // / 1.シートを取得する
+    XSSFSheet sheet = getSheet(strSheetName);
+    if (sheet == null) {
+      return;
+    }
 
-  // =============================
-  // style唯一key  20260310 add
-  // =============================
-  private String buildStyleKey(CellStyle style) {
-
-      StringBuilder sb = new StringBuilder();
-
-      sb.append(style.getAlignment()).append("|");
-      sb.append(style.getVerticalAlignment()).append("|");
-
-      sb.append(style.getBorderTop()).append("|");
-      sb.append(style.getBorderBottom()).append("|");
-      sb.append(style.getBorderLeft()).append("|");
-      sb.append(style.getBorderRight()).append("|");
-
-      sb.append(style.getFillForegroundColor()).append("|");
-      sb.append(style.getFillPattern()).append("|");
-
-      sb.append(style.getDataFormat()).append("|");
-
-      sb.append(style.getFontIndex());
-
-      return sb.toString();
+    // / 2.変更後のスタイルを設定する
+    XSSFCell cell = getCell(sheet, range);
+    cell.setCellStyle(getStyleRegistry().getStyle(cell.getCellStyle(), change));
   }
   
   /**
@@ -1954,13 +1993,12 @@ public class ExcelMakeFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorder(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.cloneStyleFrom(getCellStyle(strSheetName,range));//复制单元格原来的样式之后在修改。因为CellStyle是共享的
-    cellStyle.setBorderTop(borderStyle);
-    cellStyle.setBorderBottom(borderStyle);
-    cellStyle.setBorderLeft(borderStyle);
-    cellStyle.setBorderRight(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    ExcelStyleEvent event = new ExcelStyleEvent();
+    event.begin();
+    int lngHits = getStyleRegistry().getHitCount();
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withBorder(borderStyle));
+    event.commit("setBorder", strSheetName, range, getStyleRegistry().getHitCount() != lngHits,
+        workbook.getNumCellStyles());
   }
 
   /**
@@ -1971,9 +2009,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderTop(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.setBorderTop(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withBorderTop(borderStyle));
   }
 
   /**
@@ -1984,9 +2020,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderBottom(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.setBorderBottom(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withBorderBottom(borderStyle));
   }
 
   /**
@@ -1997,9 +2031,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderLeft(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.setBorderLeft(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withBorderLeft(borderStyle));
   }
 
   /**
@@ -2010,9 +2042,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderRight(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.setBorderRight(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withBorderRight(borderStyle));
   }
 
   /**
@@ -2030,9 +2060,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param color カラーインデックス
    */
   public void setFillForegroundColor(String strSheetName, String range, short color) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.setFillForegroundColor(color);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withFillForegroundColor(color));
   }
 
   /**
@@ -2050,9 +2078,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param style 網掛けスタイル
    */
   public void setFillPattern(String strSheetName, String range, FillPatternType style) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.setFillPattern(style);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withFillPattern(style));
   }
 
   /**
@@ -2063,10 +2089,7 @@ public class ExcelMakeFile extends ExcelFile {
    * @param alignmentStyle 水平方向の位置スタイル
    */
   public void setAlignment(String strSheetName, String range, HorizontalAlignment alignmentStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.cloneStyleFrom(getCellStyle(strSheetName,range));//复制单元格原来的样式之后在修改。因为CellStyle是共享的
-    cellStyle.setAlignment(alignmentStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withAlignment(alignmentStyle));
   }
 
   /**
@@ -2077,35 +2100,71 @@ public class ExcelMakeFile extends ExcelFile {
    * @param alignmentStyle 水平方向の位置スタイル
    */
   public void setVerticalAlignment(String strSheetName, String range, VerticalAlignment alignmentStyle) {
-    CellStyle cellStyle = copyCellStyle(strSheetName, range);
-    cellStyle.cloneStyleFrom(getCellStyle(strSheetName,range));//复制单元格原来的样式之后在修改。因为CellStyle是共享的
-    cellStyle.setVerticalAlignment(alignmentStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, range, descriptor -> descriptor.withVerticalAlignment(alignmentStyle));
   }
 
   /**
-   * セルスタイルを設定する。
-   * </p>
-   * 制限事項: <br>
-   * 一部、書式設定が解除されます。
-   * <ul>
-   * <li>縮小して全体を表示する</li>
-   * </ul>
+   * 範囲のセルのスタイルをまとめて設定する。
+   * <p>
+   * 変更後のスタイルは元のスタイルごとに一度だけ求め、範囲内の全セルに設定する。
+   * 行・セルが存在しない場合は生成する。
    * </p>
    *
    * @param strSheetName シート名
-   * @param row 行インデックス
-   * @param col 列インデックス
-   * @param cellStyle 設定するスタイル
-   */
-  private void setCellStyleProperty(String strSheetName, int row, int col, CellStyle cellStyle) {
-    XSSFSheet currentSheet = workbook.getSheet(strSheetName);
-    XSSFRow currentRow = currentSheet.getRow(row);
-    XSSFCell currentCell = currentRow.getCell(col);
-    if (currentCell == null) {
-        currentCell = currentRow.createCell(col);
+   * @param lngFirstRow 開始行インデックス
+   * @param lngLastRow 終了行インデックス
+   * @param lngFirstCol 開始列インデックス
+   * @param lngLastCol 終了列インデックス
+   * @param spec 変更内容
+   */
+  public void setRangeStyle(String strSheetName, int lngFirstRow, int lngLastRow, int lngFirstCol, int lngLastCol,
+      ExcelStyleSpec spec) {
+    // / 1.シートを取得する
+    XSSFSheet sheet = getSheet(strSheetName);
+    if (sheet == null) {
+      return;
+    }
+
+    // / 2.範囲のスタイルを設定する
+    setRangeStyle(sheet, lngFirstRow, lngLastRow, lngFirstCol, lngLastCol, spec);
+  }
+
+  /**
+   * 範囲のセルのスタイルをまとめて設定する。
+   *
+   * @param sheet シート
+   * @param lngFirstRow 開始行インデックス
+   * @param lngLastRow 終了行インデックス
+   * @param lngFirstCol 開始列インデックス
+   * @param lngLastCol 終了列インデックス
+   * @param spec 変更内容
+   */
+  void setRangeStyle(XSSFSheet sheet, int lngFirstRow, int lngLastRow, int lngFirstCol, int lngLastCol,
+      ExcelStyleSpec spec) {
+    // / 1.元のスタイル（インデックス）→ 変更後のスタイル
+    Map<Integer, CellStyle> resolved = new HashMap<>();
+    ExcelStyleRegistry registry = getStyleRegistry();
+
+    // / 2.範囲内の全セルにスタイルを設定する
+    for (int i = lngFirstRow; i <= lngLastRow; i++) {
+      XSSFRow row = sheet.getRow(i);
+      if (row == null) {
+        row = createRow(sheet, i);
+      }
+      for (int j = lngFirstCol; j <= lngLastCol; j++) {
+        XSSFCell cell = row.getCell(j);
+        if (cell == null) {
+          cell = createCell(row, j);
+        }
+        CellStyle base = cell.getCellStyle();
+        CellStyle style = resolved.get((int) base.getIndex());
+        if (style == null) {
+          style = registry.getStyle(base, spec);
+          resolved.put((int) base.getIndex(), style);
+        }
+        cell.setCellStyle(style);
+      }
     }
-    currentCell.setCellStyle(cellStyle);
   }
 
   /**
@@ -2140,47 +2199,12 @@ public class ExcelMakeFile extends ExcelFile {
     XSSFCell currentCell = currentRow.getCell(col);
 
     CellStyle oldStyle = currentCell.getCellStyle();
-
-    XSSFCellStyle newStyle = workbook.createCellStyle();
-    newStyle.cloneStyleFrom(oldStyle);
     
     XSSFFont origFont = getFont(oldStyle.getFontIndex());
-    
-    String fontKey = origFont.getFontName() +
-            "|" + origFont.getFontHeight() +
-            "|" + origFont.getBold() +
-            "|" + fontColor;
-
-    XSSFFont font;
-
-    if (fontCache.containsKey(fontKey)) {
-        font = fontCache.get(fontKey);
-    } else {
-
-        font = workbook.createFont();
-
-        try {
-            BeanUtils.copyProperties(font, origFont);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        font.setColor(fontColor);
-
-        fontCache.put(fontKey, font);
-    }
-
-    newStyle.setFont(font);
-
-    String key = buildStyleKey(newStyle);
-
-    if (styleCache.containsKey(key)) {
-        newStyle = (XSSFCellStyle) styleCache.get(key);
-    } else {
-        styleCache.put(key, newStyle);
-    }
+    XSSFFont font = fontCache.getFont(origFont, fontColor);
 
-    currentCell.setCellStyle(newStyle);
+    int fontIndex = font.getIndex();
+    currentCell.setCellStyle(getStyleRegistry().getStyle(oldStyle, descriptor -> descriptor.withFontIndex(fontIndex)));
     
 //    XSSFFont font = workbook.createFont();
 //
@@ -5,8 +5,16 @@ import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -26,7 +34,6 @@ import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.beans.BeanUtils;
 import cn.com.platform.framework.common.exception.SystemException;
 import cn.com.platform.framework.util.FwDateUtils;
 import cn.com.platform.framework.util.FwNumberUtils;
@@ -44,11 +51,11 @@ public class ExcelMakeSFile extends ExcelFile {
   /** ワークブック。 */
   public SXSSFWorkbook workbook;
 
-  /** 英字変換用。 */
-  static final int CONVERT_CD_TO_ALPHABET = 26;
+  /** セルスタイルの登録簿（初回使用時に生成する）。 */
+  private ExcelStyleRegistry styleRegistry;
 
-  /** 数字文字列変換用。 */
-  static final int CONVERT_CD_TO_NUMBER_STRING = 64;
+  /** フォントキャッシュ（コピー元フォントの全プロパティ|色 → フォント）。 */
+  private final ExcelFontCache<Font> fontCache = new ExcelFontCache<>(() -> workbook.createFont());
 
   /**
    * ExcelMakeFile を構築する。
@@ -119,11 +126,17 @@ public class ExcelMakeSFile extends ExcelFile {
 
   /**
    * Excelファイルのバイト配列を返却する。
+   * <p>
+   * ブック全体をメモリ上に複製するため、小さなファイルに限って使用する。
+   * ファイル等に出力する場合は {@link #writeTo(Path)} を使用する。
+   * </p>
    *
    * @return byte[] ファイルのバイト配列
    * @throws IOException 読み込みでエラーが発生した場合スロー
    */
   public byte[] getBytes() throws IOException {
+    ExcelWriteEvent event = new ExcelWriteEvent();
+    event.begin();
 
     // 出力ファイルオブジェクトを生成する
     ByteArrayOutputStream outstream = new ByteArrayOutputStream();
@@ -137,6 +150,8 @@ public class ExcelMakeSFile extends ExcelFile {
     // 不要オブジェクトを破棄する
     outstream = null;
 
+    event.commit("getBytes", true, fileByte.length);
+
     // バイト配列を返却する
     return fileByte;
   }
@@ -149,6 +164,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @throws IOException 読み込みでエラーが発生した場合スロー
    */
   public boolean outputFile(String strOutputPath) throws IOException {
+    ExcelWriteEvent event = new ExcelWriteEvent();
+    event.begin();
 
     // 出力ファイルオブジェクトを生成する
     FileOutputStream outfile = new FileOutputStream(strOutputPath);
@@ -160,13 +177,76 @@ public class ExcelMakeSFile extends ExcelFile {
     boolean blnResult = true;
 
     // 不要オブジェクトを破棄する
+    long lngBytes = outfile.getChannel().position();
     outfile.close();
     outfile = null;
 
+    event.commit("outputFile", true, lngBytes);
+
     // 出力結果を返却する
     return blnResult;
   }
 
+  /**
+   * Excelファイルを指定されたファイルに出力する。
+   * <p>
+   * バイト配列を経由せず、ファイルのチャネルに直接出力する。ファイルが存在する場合は上書きする。
+   * </p>
+   *
+   * @param path 出力先のファイル
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  public long writeTo(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      return writeTo(channel);
+    }
+  }
+
+  /**
+   * Excelファイルを指定されたチャネルに出力する。チャネルは閉じない。
+   *
+   * @param channel 出力先のチャネル
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  public long writeTo(WritableByteChannel channel) throws IOException {
+    return writeTo(new ExcelOutputStream(channel));
+  }
+
+  /**
+   * Excelファイルを指定されたストリームに出力する。ストリームは閉じない。
+   *
+   * @param out 出力先のストリーム
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  public long writeTo(OutputStream out) throws IOException {
+    return writeTo(new ExcelOutputStream(out));
+  }
+
+  /**
+   * Excelファイルをバッファ付きのストリームに出力する。
+   *
+   * @param out 出力先のストリーム
+   * @return 出力したバイト数
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  private long writeTo(ExcelOutputStream out) throws IOException {
+    ExcelWriteEvent event = new ExcelWriteEvent();
+    event.begin();
+
+    // / 1.Excelファイルを出力し、バッファの内容を出力先に渡す
+    workbook.write(out);
+    out.close();
+
+    event.commit("writeTo", true, out.getCount());
+
+    // / 2.出力したバイト数を返却する
+    return out.getCount();
+  }
+
   /**
    * 行のインスタンスを生成する。
    *
@@ -338,6 +418,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param strValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, String strValue) {
+    ExcelCellEvent event = new ExcelCellEvent();
+    event.begin();
     // ローカル変数宣言 //
     Sheet sheet = null; // シート
     Cell cell = null; // セル
@@ -357,14 +439,15 @@ public class ExcelMakeSFile extends ExcelFile {
 
     // / 4.セル内改行を設定する
     if (strValue != null && strValue.indexOf(CELL_INNER_NEW_LINE_CHAR) > -1) {
-      style = cell.getCellStyle();
-      style.setWrapText(true);
+      style = getStyleRegistry().getStyle(cell.getCellStyle(), descriptor -> descriptor.withWrapText(true));
       cell.setCellStyle(style);
     }
 
     // / 5.セルに値を設定する
     cell.setCellValue(strValue);
 
+    event.commit(strSheetName, strA1, "String", strValue == null ? 0 : strValue.length());
+
     // / 6.不要オブジェクトを破棄する
     sheet = null;
     cell = null;
@@ -432,14 +515,14 @@ public class ExcelMakeSFile extends ExcelFile {
     // cell.setEncoding(Cell.ENCODING_UTF_16);
 
     // / 4.セルの日付書式を設定する
-    // // 4.1.対象セルの書式を取得する
+    // // 4.1.日付書式を取得する
     CellStyle cellStyle = null; // セル書式
     DataFormat format = null; // 日付書式
-    cellStyle = cell.getCellStyle();
     format = workbook.createDataFormat();
+    short intFormat = format.getFormat(strDateFormat);
 
     // // 4.2.任意の日付書式を設定する
-    cellStyle.setDataFormat(format.getFormat(strDateFormat));
+    cellStyle = getStyleRegistry().getStyle(cell.getCellStyle(), descriptor -> descriptor.withDataFormat(intFormat));
     cell.setCellStyle(cellStyle);
 
     // / 5.セルに値を設定する
@@ -460,6 +543,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param lngValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, long lngValue) {
+    ExcelCellEvent event = new ExcelCellEvent();
+    event.begin();
     // ローカル変数宣言 //
     Sheet sheet = null; // シート
     Cell cell = null; // セル
@@ -479,6 +564,8 @@ public class ExcelMakeSFile extends ExcelFile {
     // / 4.セルに値を設定する
     cell.setCellValue(lngValue);
 
+    event.commit(strSheetName, strA1, "long", 0);
+
     // / 5.不要オブジェクトを破棄する
     sheet = null;
     cell = null;
@@ -492,6 +579,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param dblValue 設定する値
    */
   public void setCellValue(String strSheetName, String strA1, double dblValue) {
+    ExcelCellEvent event = new ExcelCellEvent();
+    event.begin();
     // ローカル変数宣言 //
     Sheet sheet = null; // シート
     Cell cell = null; // セル
@@ -511,6 +600,8 @@ public class ExcelMakeSFile extends ExcelFile {
     // / 4.セルに値を設定する
     cell.setCellValue(dblValue);
 
+    event.commit(strSheetName, strA1, "double", 0);
+
     // / 5.不要オブジェクトを破棄する
     sheet = null;
     cell = null;
@@ -1310,6 +1401,18 @@ public class ExcelMakeSFile extends ExcelFile {
     return workbook.createCellStyle();
   }
 
+  /**
+   * セルスタイルの登録簿を取得する。
+   *
+   * @return ExcelStyleRegistry セルスタイルの登録簿
+   */
+  public ExcelStyleRegistry getStyleRegistry() {
+    if (styleRegistry == null) {
+      styleRegistry = new ExcelStyleRegistry(workbook);
+    }
+    return styleRegistry;
+  }
+
   /**
    * セルのスタイルを取得する。
    *
@@ -1757,9 +1860,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderTop(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setBorderTop(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withBorderTop(borderStyle));
   }
 
   /**
@@ -1770,9 +1872,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderBottom(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setBorderBottom(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withBorderBottom(borderStyle));
   }
 
   /**
@@ -1783,9 +1884,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderLeft(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setBorderLeft(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withBorderLeft(borderStyle));
   }
 
   /**
@@ -1796,9 +1896,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param borderStyle ボーダースタイル
    */
   public void setBorderRight(String strSheetName, String range, BorderStyle borderStyle) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setBorderRight(borderStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withBorderRight(borderStyle));
   }
 
   /**
@@ -1816,9 +1915,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param color カラーインデックス
    */
   public void setFillForegroundColor(String strSheetName, String range, short color) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setFillForegroundColor(color);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withFillForegroundColor(color));
   }
 
   /**
@@ -1836,9 +1934,8 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param style 網掛けスタイル
    */
   public void setFillPattern(String strSheetName, String range, FillPatternType style) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setFillPattern(style);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withFillPattern(style));
   }
 
   /**
@@ -1849,31 +1946,75 @@ public class ExcelMakeSFile extends ExcelFile {
    * @param alignmentStyle 水平方向の位置スタイル
    */
   public void setAlignment(String strSheetName, String range, HorizontalAlignment alignmentStyle) {
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setAlignment(alignmentStyle);
-    setCellStyleProperty(strSheetName, getRowIndex(range), getColIndex(range), cellStyle);
+    updateCellStyle(strSheetName, getRowIndex(range), getColIndex(range),
+        descriptor -> descriptor.withAlignment(alignmentStyle));
   }
 
   /**
-   * セルスタイルを設定する。
+   * 範囲のセルのスタイルをまとめて設定する。
+   * <p>
+   * 変更後のスタイルは元のスタイルごとに一度だけ求め、範囲内の全セルに設定する。
+   * 行・セルが存在しない場合は生成する。
    * </p>
-   * 制限事項: <br>
-   * 一部、書式設定が解除されます。
-   * <ul>
-   * <li>縮小して全体を表示する</li>
-   * </ul>
+   *
+   * @param strSheetName シート名
+   * @param lngFirstRow 開始行インデックス
+   * @param lngLastRow 終了行インデックス
+   * @param lngFirstCol 開始列インデックス
+   * @param lngLastCol 終了列インデックス
+   * @param spec 変更内容
+   */
+  public void setRangeStyle(String strSheetName, int lngFirstRow, int lngLastRow, int lngFirstCol, int lngLastCol,
+      ExcelStyleSpec spec) {
+    // / 1.シートを取得する
+    Sheet sheet = getSheet(strSheetName);
+    if (sheet == null) {
+      return;
+    }
+
+    // / 2.元のスタイル（インデックス）→ 変更後のスタイル
+    Map<Integer, CellStyle> resolved = new HashMap<>();
+    ExcelStyleRegistry registry = getStyleRegistry();
+
+    // / 3.範囲内の全セルにスタイルを設定する
+    for (int i = lngFirstRow; i <= lngLastRow; i++) {
+      Row row = sheet.getRow(i);
+      if (row == null) {
+        row = createRow(sheet, i);
+      }
+      for (int j = lngFirstCol; j <= lngLastCol; j++) {
+        Cell cell = row.getCell(j);
+        if (cell == null) {
+          cell = createCell(row, j);
+        }
+        CellStyle base = cell.getCellStyle();
+        CellStyle style = resolved.get((int) base.getIndex());
+        if (style == null) {
+          style = registry.getStyle(base, spec);
+          resolved.put((int) base.getIndex(), style);
+        }
+        cell.setCellStyle(style);
+      }
+    }
+  }
+
+  /**
+   * セルのスタイルを変更する。
+   * <p>
+   * セルの現在のスタイルを変更した内容のスタイルを登録簿から取得して設定する。
+   * 共有されているスタイルは変更しないため、他のセルに影響しない。
    * </p>
    *
    * @param strSheetName シート名
    * @param row 行インデックス
    * @param col 列インデックス
-   * @param cellStyle 設定するスタイル
+   * @param change 変更内容
    */
-  private void setCellStyleProperty(String strSheetName, int row, int col, CellStyle cellStyle) {
+  private void updateCellStyle(String strSheetName, int row, int col, UnaryOperator<ExcelStyleDescriptor> change) {
     Sheet currentSheet = workbook.getSheet(strSheetName);
     Row currentRow = currentSheet.getRow(row);
     Cell currentCell = currentRow.getCell(col);
-    currentCell.setCellStyle(cellStyle);
+    currentCell.setCellStyle(getStyleRegistry().getStyle(currentCell.getCellStyle(), change));
   }
 
   /**
@@ -1907,15 +2048,12 @@ public class ExcelMakeSFile extends ExcelFile {
     Row currentRow = currentSheet.getRow(row);
     Cell currentCell = currentRow.getCell(col);
 
-    Font origFont = getFont(currentCell.getCellStyle().getFontIndexAsInt());
-    Font font = workbook.createFont();
-
-    BeanUtils.copyProperties(origFont, font);
-    font.setColor(fontColor);
+    Font origFont = getFont(currentCell.getCellStyle().getFontIndex());
+    Font font = fontCache.getFont(origFont, fontColor);
 
-    CellStyle cellStyle = workbook.createCellStyle();
-    cellStyle.setFont(font);
-    currentCell.setCellStyle(cellStyle);
+    int fontIndex = font.getIndex();
+    currentCell.setCellStyle(getStyleRegistry().getStyle(currentCell.getCellStyle(),
+        descriptor -> descriptor.withFontIndex(fontIndex)));
 
   }
 
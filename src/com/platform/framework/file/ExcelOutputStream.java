@@ -0,0 +1,77 @@
+package cn.com.platform.framework.file;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Excelファイル出力用のストリーム。
+ * <p>
+ * 出力先を大きなバッファで包み、ZIP の小さな書き込みをまとめて出力先に渡す。出力したバイト数を数える。
+ * close しても出力先は閉じない（バッファの内容を出力するだけ）。出力先は呼び出し側で閉じる。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+class ExcelOutputStream extends FilterOutputStream {
+
+  /** バッファのサイズ（1MB）。 */
+  static final int BUFFER_SIZE = 1 << 20;
+
+  /** 出力したバイト数。 */
+  private long lngCount;
+
+  /**
+   * ExcelOutputStream を構築する。
+   *
+   * @param out 出力先
+   */
+  ExcelOutputStream(OutputStream out) {
+    super(new BufferedOutputStream(out, BUFFER_SIZE));
+  }
+
+  /**
+   * ExcelOutputStream を構築する。
+   *
+   * @param channel 出力先
+   */
+  ExcelOutputStream(WritableByteChannel channel) {
+    this(Channels.newOutputStream(channel));
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    out.write(b);
+    lngCount++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    // FilterOutputStream の既定の実装は1バイトずつ出力するため、まとめて渡す
+    out.write(b, off, len);
+    lngCount += len;
+  }
+
+  /**
+   * バッファの内容を出力する。出力先は閉じない。
+   *
+   * @throws IOException 出力でエラーが発生した場合スロー
+   */
+  @Override
+  public void close() throws IOException {
+    out.flush();
+  }
+
+  /**
+   * 出力したバイト数を返す。
+   *
+   * @return バイト数
+   */
+  long getCount() {
+    return lngCount;
+  }
+}
@@ -0,0 +1,338 @@
+package cn.com.platform.framework.file;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+import cn.com.platform.framework.common.exception.SystemException;
+
+/**
+ * EXCELシートの行書き込み。
+ * <p>
+ * {@link ExcelMakeFile#getRowWriter(String)} でシートごとに一度取得し、
+ * 現在行（カーソル）に列インデックスで値を設定する。
+ * シートの検索とA1形式の変換を行わず、現在行のインスタンスを再利用するため、大量の書き込みに使用する。
+ * 値の設定内容（セル内改行、BigDecimal の 0 は空白等）はA1形式の setCellValue と同じ。
+ * </p>
+ * <pre>
+ * ExcelRowWriter writer = excelMakeFile.getRowWriter("修正一覧");
+ * writer.appendRow(1, no, className, line, message);
+ * </pre>
+ * <p>
+ * スレッドセーフではない。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+public class ExcelRowWriter {
+
+  /** record の構成要素のアクセサ（クラスごとに一度だけ取得する）。 */
+  private static final ClassValue<Method[]> RECORD_ACCESSORS = new ClassValue<Method[]>() {
+    @Override
+    protected Method[] computeValue(Class<?> type) {
+      RecordComponent[] components = type.getRecordComponents();
+      Method[] accessors = new Method[components.length];
+      for (int i = 0; i < components.length; i++) {
+        accessors[i] = components[i].getAccessor();
+        accessors[i].setAccessible(true);
+      }
+      return accessors;
+    }
+  };
+
+  /** EXCELファイル。 */
+  private final ExcelMakeFile excelMakeFile;
+
+  /** シート。 */
+  private final XSSFSheet sheet;
+
+  /** 現在行。 */
+  private XSSFRow row;
+
+  /**
+   * ExcelRowWriter を構築する。
+   *
+   * @param excelMakeFile EXCELファイル
+   * @param sheet シート
+   */
+  ExcelRowWriter(ExcelMakeFile excelMakeFile, XSSFSheet sheet) {
+    this.excelMakeFile = excelMakeFile;
+    this.sheet = sheet;
+  }
+
+  /**
+   * シートを返す。
+   *
+   * @return XSSFSheet シート
+   */
+  public XSSFSheet getSheet() {
+    return sheet;
+  }
+
+  /**
+   * 現在行を返す。
+   *
+   * @return XSSFRow 現在行（行を選択していない場合は null）
+   */
+  public XSSFRow getRow() {
+    return row;
+  }
+
+  /**
+   * 現在行のインデックスを返す。
+   *
+   * @return 行インデックス（行を選択していない場合は -1）
+   */
+  public int getRowIndex() {
+    return row == null ? -1 : row.getRowNum();
+  }
+
+  /**
+   * 指定行を現在行にする。行が存在しない場合は生成する。
+   *
+   * @param lngRowIndex 行インデックス
+   * @return この行書き込み
+   */
+  public ExcelRowWriter moveTo(int lngRowIndex) {
+    if (row == null || row.getRowNum() != lngRowIndex) {
+      row = sheet.getRow(lngRowIndex);
+      if (row == null) {
+        row = sheet.createRow(lngRowIndex);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * シートの最終行の次の行を生成し、現在行にする。
+   *
+   * @return この行書き込み
+   */
+  public ExcelRowWriter nextRow() {
+    row = sheet.createRow(sheet.getLastRowNum() + 1);
+    return this;
+  }
+
+  /**
+   * シートの最終行の次の行を生成し、指定列から順に値を設定する。
+   *
+   * @param lngFirstCol 開始列インデックス
+   * @param values 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter appendRow(int lngFirstCol, Object... values) {
+    return nextRow().writeRow(lngFirstCol, values);
+  }
+
+  /**
+   * 現在行の指定列から順に値を設定する。
+   *
+   * @param lngFirstCol 開始列インデックス
+   * @param values 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter writeRow(int lngFirstCol, Object... values) {
+    for (int i = 0; i < values.length; i++) {
+      setCellValue(lngFirstCol + i, values[i]);
+    }
+    return this;
+  }
+
+  /**
+   * 現在行の指定列から順に record の構成要素の値を設定する（宣言順）。
+   *
+   * @param lngFirstCol 開始列インデックス
+   * @param record 設定する値
+   * @return この行書き込み
+   * @throws SystemException 構成要素の値を取得できない場合
+   */
+  public ExcelRowWriter writeRecord(int lngFirstCol, Record record) throws SystemException {
+    Method[] accessors = RECORD_ACCESSORS.get(record.getClass());
+    for (int i = 0; i < accessors.length; i++) {
+      try {
+        setCellValue(lngFirstCol + i, accessors[i].invoke(record));
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new SystemException(e);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * 指定セルに値を設定する。指定行が現在行でない場合は現在行を移動する。
+   *
+   * @param lngRowIndex 行インデックス
+   * @param lngColIndex 列インデックス
+   * @param value 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngRowIndex, int lngColIndex, Object value) {
+    return moveTo(lngRowIndex).setCellValue(lngColIndex, value);
+  }
+
+  /**
+   * 現在行のセルに値を設定する（値の型により設定方法を選択する）。
+   * <p>
+   * null は空白、Integer / Long / Short / Byte は long、Double / Float は double、
+   * 上記以外の型は文字列として設定する。
+   * </p>
+   *
+   * @param lngColIndex 列インデックス
+   * @param value 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, Object value) {
+    if (value == null) {
+      return setCellValue(lngColIndex, (String) null);
+    }
+    if (value instanceof String strValue) {
+      return setCellValue(lngColIndex, strValue);
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return setCellValue(lngColIndex, ((Number) value).longValue());
+    }
+    if (value instanceof Double || value instanceof Float) {
+      return setCellValue(lngColIndex, ((Number) value).doubleValue());
+    }
+    if (value instanceof BigDecimal bdecValue) {
+      return setCellValue(lngColIndex, bdecValue);
+    }
+    if (value instanceof Date dateValue) {
+      return setCellValue(lngColIndex, dateValue);
+    }
+    if (value instanceof Boolean blnValue) {
+      cell(lngColIndex).setCellValue(blnValue);
+      return this;
+    }
+    return setCellValue(lngColIndex, value.toString());
+  }
+
+  /**
+   * 現在行のセルに値を設定する(String型)。
+   *
+   * @param lngColIndex 列インデックス
+   * @param strValue 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, String strValue) {
+    excelMakeFile.writeCellValue(cell(lngColIndex), strValue);
+    return this;
+  }
+
+  /**
+   * 現在行のセルに値を設定する(long型)。
+   *
+   * @param lngColIndex 列インデックス
+   * @param lngValue 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, long lngValue) {
+    cell(lngColIndex).setCellValue(lngValue);
+    return this;
+  }
+
+  /**
+   * 現在行のセルに値を設定する(double型)。
+   *
+   * @param lngColIndex 列インデックス
+   * @param dblValue 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, double dblValue) {
+    cell(lngColIndex).setCellValue(dblValue);
+    return this;
+  }
+
+  /**
+   * 現在行のセルに値を設定する(BigDecimal型)。
+   *
+   * @param lngColIndex 列インデックス
+   * @param bdecValue 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, BigDecimal bdecValue) {
+    excelMakeFile.writeCellValue(cell(lngColIndex), bdecValue);
+    return this;
+  }
+
+  /**
+   * 現在行のセルに値を設定する(Date型)。
+   *
+   * @param lngColIndex 列インデックス
+   * @param dateValue 設定する値
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, Date dateValue) {
+    excelMakeFile.writeCellValue(cell(lngColIndex), dateValue);
+    return this;
+  }
+
+  /**
+   * 現在行のセルに値と日付書式を設定する(Date型)。
+   *
+   * @param lngColIndex 列インデックス
+   * @param dateValue 設定する値
+   * @param strDateFormat 日付フォーマット
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellValue(int lngColIndex, Date dateValue, String strDateFormat) {
+    excelMakeFile.writeCellValue(cell(lngColIndex), dateValue, strDateFormat);
+    return this;
+  }
+
+  /**
+   * 現在行のセルにスタイルを設定する。
+   *
+   * @param lngColIndex 列インデックス
+   * @param style スタイル
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setCellStyle(int lngColIndex, CellStyle style) {
+    cell(lngColIndex).setCellStyle(style);
+    return this;
+  }
+
+  /**
+   * 現在行の指定列の範囲のスタイルをまとめて設定する。
+   *
+   * @param lngFirstCol 開始列インデックス
+   * @param lngLastCol 終了列インデックス
+   * @param spec 変更内容
+   * @return この行書き込み
+   */
+  public ExcelRowWriter setRangeStyle(int lngFirstCol, int lngLastCol, ExcelStyleSpec spec) {
+    int lngRowIndex = currentRow().getRowNum();
+    excelMakeFile.setRangeStyle(sheet, lngRowIndex, lngRowIndex, lngFirstCol, lngLastCol, spec);
+    return this;
+  }
+
+  /**
+   * 現在行のセルを取得する。セルが存在しない場合は生成する。
+   *
+   * @param lngColIndex 列インデックス
+   * @return XSSFCell セル
+   */
+  public XSSFCell cell(int lngColIndex) {
+    XSSFRow currentRow = currentRow();
+    XSSFCell cell = currentRow.getCell(lngColIndex);
+    if (cell == null) {
+      cell = currentRow.createCell(lngColIndex);
+    }
+    return cell;
+  }
+
+  private XSSFRow currentRow() {
+    if (row == null) {
+      throw new IllegalStateException("no current row: call moveTo or nextRow first");
+    }
+    return row;
+  }
+}
@@ -0,0 +1,497 @@
+package cn.com.platform.framework.file;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+
+/**
+ * セルスタイルの内容（不変）。
+ * <p>
+ * 罫線・配置・網掛け・表示形式・フォント・折り返し等、セルスタイルの設定値を保持する。
+ * 設定値が等しい記述子は equals / hashCode が等しいため、{@link ExcelStyleRegistry} のキーとして使用する。
+ * XSSF の RGB・テーマ色は色のインデックスで表せないため、キーとしてだけ保持する（with～ では変更できない）。
+ * 変更は with～ メソッドで新しい記述子を生成して行う。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+public final class ExcelStyleDescriptor {
+
+  /** 水平方向の位置。 */
+  private HorizontalAlignment alignment;
+
+  /** 縦方向の位置。 */
+  private VerticalAlignment verticalAlignment;
+
+  /** 罫線（上）。 */
+  private BorderStyle borderTop;
+
+  /** 罫線（下）。 */
+  private BorderStyle borderBottom;
+
+  /** 罫線（左）。 */
+  private BorderStyle borderLeft;
+
+  /** 罫線（右）。 */
+  private BorderStyle borderRight;
+
+  /** 罫線の色（上）。 */
+  private short topBorderColor;
+
+  /** 罫線の色（下）。 */
+  private short bottomBorderColor;
+
+  /** 罫線の色（左）。 */
+  private short leftBorderColor;
+
+  /** 罫線の色（右）。 */
+  private short rightBorderColor;
+
+  /** 網掛け色（前景）。 */
+  private short fillForegroundColor;
+
+  /** 網掛け色（背景）。 */
+  private short fillBackgroundColor;
+
+  /** 網掛けパターン。 */
+  private FillPatternType fillPattern;
+
+  /** 表示形式のインデックス。 */
+  private short dataFormat;
+
+  /** フォントのインデックス。 */
+  private int fontIndex;
+
+  /** セル内で折り返して全体を表示する。 */
+  private boolean wrapText;
+
+  /** 縮小して全体を表示する。 */
+  private boolean shrinkToFit;
+
+  /** 文字の回転。 */
+  private short rotation;
+
+  /** インデント。 */
+  private short indention;
+
+  /** ロック。 */
+  private boolean locked;
+
+  /** 数式を表示しない。 */
+  private boolean hidden;
+
+  /** XSSF の色（網掛け・罫線の RGB・テーマ・濃淡）。XSSF 以外の場合は空文字。 */
+  private String xssfColors;
+
+  /** ハッシュ値（生成後に変更しないため一度だけ計算する）。 */
+  private int hash;
+
+  private ExcelStyleDescriptor() {
+  }
+
+  /**
+   * セルスタイルの現在の設定値から記述子を生成する。
+   *
+   * @param style セルスタイル
+   * @return 記述子
+   */
+  public static ExcelStyleDescriptor of(CellStyle style) {
+    ExcelStyleDescriptor descriptor = new ExcelStyleDescriptor();
+    descriptor.alignment = style.getAlignment();
+    descriptor.verticalAlignment = style.getVerticalAlignment();
+    descriptor.borderTop = style.getBorderTop();
+    descriptor.borderBottom = style.getBorderBottom();
+    descriptor.borderLeft = style.getBorderLeft();
+    descriptor.borderRight = style.getBorderRight();
+    descriptor.topBorderColor = style.getTopBorderColor();
+    descriptor.bottomBorderColor = style.getBottomBorderColor();
+    descriptor.leftBorderColor = style.getLeftBorderColor();
+    descriptor.rightBorderColor = style.getRightBorderColor();
+    descriptor.fillForegroundColor = style.getFillForegroundColor();
+    descriptor.fillBackgroundColor = style.getFillBackgroundColor();
+    descriptor.fillPattern = style.getFillPattern();
+    descriptor.dataFormat = style.getDataFormat();
+    descriptor.fontIndex = style.getFontIndex();
+    descriptor.wrapText = style.getWrapText();
+    descriptor.shrinkToFit = style.getShrinkToFit();
+    descriptor.rotation = style.getRotation();
+    descriptor.indention = style.getIndention();
+    descriptor.locked = style.getLocked();
+    descriptor.hidden = style.getHidden();
+    descriptor.xssfColors = xssfColors(style);
+    descriptor.hash = descriptor.computeHash();
+    return descriptor;
+  }
+
+  /**
+   * 元の記述子から変更された設定値だけをセルスタイルに反映する。
+   * <p>
+   * セルスタイルは元のスタイルを複写したものとする。変更されていない設定は書き換えないため、
+   * 複写した RGB 色等がインデックスの色で上書きされない。
+   * </p>
+   *
+   * @param style 反映先のセルスタイル
+   * @param base 元のスタイルの記述子
+   * @param font fontIndex のフォント
+   */
+  void applyTo(CellStyle style, ExcelStyleDescriptor base, Font font) {
+    if (alignment != base.alignment) {
+      style.setAlignment(alignment);
+    }
+    if (verticalAlignment != base.verticalAlignment) {
+      style.setVerticalAlignment(verticalAlignment);
+    }
+    if (borderTop != base.borderTop) {
+      style.setBorderTop(borderTop);
+    }
+    if (borderBottom != base.borderBottom) {
+      style.setBorderBottom(borderBottom);
+    }
+    if (borderLeft != base.borderLeft) {
+      style.setBorderLeft(borderLeft);
+    }
+    if (borderRight != base.borderRight) {
+      style.setBorderRight(borderRight);
+    }
+    if (topBorderColor != base.topBorderColor) {
+      style.setTopBorderColor(topBorderColor);
+    }
+    if (bottomBorderColor != base.bottomBorderColor) {
+      style.setBottomBorderColor(bottomBorderColor);
+    }
+    if (leftBorderColor != base.leftBorderColor) {
+      style.setLeftBorderColor(leftBorderColor);
+    }
+    if (rightBorderColor != base.rightBorderColor) {
+      style.setRightBorderColor(rightBorderColor);
+    }
+    if (fillForegroundColor != base.fillForegroundColor) {
+      style.setFillForegroundColor(fillForegroundColor);
+    }
+    if (fillBackgroundColor != base.fillBackgroundColor) {
+      style.setFillBackgroundColor(fillBackgroundColor);
+    }
+    if (fillPattern != base.fillPattern) {
+      style.setFillPattern(fillPattern);
+    }
+    if (dataFormat != base.dataFormat) {
+      style.setDataFormat(dataFormat);
+    }
+    if (fontIndex != base.fontIndex) {
+      style.setFont(font);
+    }
+    if (wrapText != base.wrapText) {
+      style.setWrapText(wrapText);
+    }
+    if (shrinkToFit != base.shrinkToFit) {
+      style.setShrinkToFit(shrinkToFit);
+    }
+    if (rotation != base.rotation) {
+      style.setRotation(rotation);
+    }
+    if (indention != base.indention) {
+      style.setIndention(indention);
+    }
+    if (locked != base.locked) {
+      style.setLocked(locked);
+    }
+    if (hidden != base.hidden) {
+      style.setHidden(hidden);
+    }
+  }
+
+  /**
+   * 罫線（上下左右）を変更した記述子を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withBorder(BorderStyle border) {
+    ExcelStyleDescriptor copy = copy();
+    copy.borderTop = border;
+    copy.borderBottom = border;
+    copy.borderLeft = border;
+    copy.borderRight = border;
+    return copy.seal();
+  }
+
+  /**
+   * 罫線（上）を変更した記述子を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withBorderTop(BorderStyle border) {
+    ExcelStyleDescriptor copy = copy();
+    copy.borderTop = border;
+    return copy.seal();
+  }
+
+  /**
+   * 罫線（下）を変更した記述子を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withBorderBottom(BorderStyle border) {
+    ExcelStyleDescriptor copy = copy();
+    copy.borderBottom = border;
+    return copy.seal();
+  }
+
+  /**
+   * 罫線（左）を変更した記述子を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withBorderLeft(BorderStyle border) {
+    ExcelStyleDescriptor copy = copy();
+    copy.borderLeft = border;
+    return copy.seal();
+  }
+
+  /**
+   * 罫線（右）を変更した記述子を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withBorderRight(BorderStyle border) {
+    ExcelStyleDescriptor copy = copy();
+    copy.borderRight = border;
+    return copy.seal();
+  }
+
+  /**
+   * 水平方向の位置を変更した記述子を返す。
+   *
+   * @param value 水平方向の位置
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withAlignment(HorizontalAlignment value) {
+    ExcelStyleDescriptor copy = copy();
+    copy.alignment = value;
+    return copy.seal();
+  }
+
+  /**
+   * 縦方向の位置を変更した記述子を返す。
+   *
+   * @param value 縦方向の位置
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withVerticalAlignment(VerticalAlignment value) {
+    ExcelStyleDescriptor copy = copy();
+    copy.verticalAlignment = value;
+    return copy.seal();
+  }
+
+  /**
+   * 網掛け色（前景）を変更した記述子を返す。
+   *
+   * @param color カラーインデックス
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withFillForegroundColor(short color) {
+    ExcelStyleDescriptor copy = copy();
+    copy.fillForegroundColor = color;
+    return copy.seal();
+  }
+
+  /**
+   * 網掛けパターンを変更した記述子を返す。
+   *
+   * @param pattern 網掛けスタイル
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withFillPattern(FillPatternType pattern) {
+    ExcelStyleDescriptor copy = copy();
+    copy.fillPattern = pattern;
+    return copy.seal();
+  }
+
+  /**
+   * 表示形式を変更した記述子を返す。
+   *
+   * @param format 表示形式のインデックス
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withDataFormat(short format) {
+    ExcelStyleDescriptor copy = copy();
+    copy.dataFormat = format;
+    return copy.seal();
+  }
+
+  /**
+   * フォントを変更した記述子を返す。
+   *
+   * @param index フォントのインデックス
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withFontIndex(int index) {
+    ExcelStyleDescriptor copy = copy();
+    copy.fontIndex = index;
+    return copy.seal();
+  }
+
+  /**
+   * セル内の折り返しを変更した記述子を返す。
+   *
+   * @param wrap 折り返して全体を表示する場合 true
+   * @return 記述子
+   */
+  public ExcelStyleDescriptor withWrapText(boolean wrap) {
+    ExcelStyleDescriptor copy = copy();
+    copy.wrapText = wrap;
+    return copy.seal();
+  }
+
+  /**
+   * フォントのインデックスを返す。
+   *
+   * @return フォントのインデックス
+   */
+  public int getFontIndex() {
+    return fontIndex;
+  }
+
+  private ExcelStyleDescriptor copy() {
+    ExcelStyleDescriptor copy = new ExcelStyleDescriptor();
+    copy.alignment = alignment;
+    copy.verticalAlignment = verticalAlignment;
+    copy.borderTop = borderTop;
+    copy.borderBottom = borderBottom;
+    copy.borderLeft = borderLeft;
+    copy.borderRight = borderRight;
+    copy.topBorderColor = topBorderColor;
+    copy.bottomBorderColor = bottomBorderColor;
+    copy.leftBorderColor = leftBorderColor;
+    copy.rightBorderColor = rightBorderColor;
+    copy.fillForegroundColor = fillForegroundColor;
+    copy.fillBackgroundColor = fillBackgroundColor;
+    copy.fillPattern = fillPattern;
+    copy.dataFormat = dataFormat;
+    copy.fontIndex = fontIndex;
+    copy.wrapText = wrapText;
+    copy.shrinkToFit = shrinkToFit;
+    copy.rotation = rotation;
+    copy.indention = indention;
+    copy.locked = locked;
+    copy.hidden = hidden;
+    copy.xssfColors = xssfColors;
+    return copy;
+  }
+
+  /**
+   * XSSF のセルスタイルの網掛け・罫線の色（ARGB・テーマ・濃淡）を文字列にする。
+   *
+   * @param style セルスタイル
+   * @return 色の文字列（XSSF 以外の場合は空文字）
+   */
+  private static String xssfColors(CellStyle style) {
+    if (!(style instanceof XSSFCellStyle)) {
+      return "";
+    }
+    XSSFCellStyle xssfStyle = (XSSFCellStyle) style;
+    StringBuilder sb = new StringBuilder();
+    appendColor(sb, xssfStyle.getFillForegroundXSSFColor());
+    appendColor(sb, xssfStyle.getFillBackgroundXSSFColor());
+    appendColor(sb, xssfStyle.getTopBorderXSSFColor());
+    appendColor(sb, xssfStyle.getBottomBorderXSSFColor());
+    appendColor(sb, xssfStyle.getLeftBorderXSSFColor());
+    appendColor(sb, xssfStyle.getRightBorderXSSFColor());
+    return sb.toString();
+  }
+
+  private static void appendColor(StringBuilder sb, XSSFColor color) {
+    if (color != null) {
+      sb.append(color.getARGBHex()).append(':').append(color.isThemed() ? color.getTheme() : -1).append(':')
+          .append(color.getTint());
+    }
+    sb.append('|');
+  }
+
+  private ExcelStyleDescriptor seal() {
+    hash = computeHash();
+    return this;
+  }
+
+  private int computeHash() {
+    int result = alignment == null ? 0 : alignment.hashCode();
+    result = 31 * result + (verticalAlignment == null ? 0 : verticalAlignment.hashCode());
+    result = 31 * result + (borderTop == null ? 0 : borderTop.hashCode());
+    result = 31 * result + (borderBottom == null ? 0 : borderBottom.hashCode());
+    result = 31 * result + (borderLeft == null ? 0 : borderLeft.hashCode());
+    result = 31 * result + (borderRight == null ? 0 : borderRight.hashCode());
+    result = 31 * result + topBorderColor;
+    result = 31 * result + bottomBorderColor;
+    result = 31 * result + leftBorderColor;
+    result = 31 * result + rightBorderColor;
+    result = 31 * result + fillForegroundColor;
+    result = 31 * result + fillBackgroundColor;
+    result = 31 * result + (fillPattern == null ? 0 : fillPattern.hashCode());
+    result = 31 * result + dataFormat;
+    result = 31 * result + fontIndex;
+    result = 31 * result + (wrapText ? 1 : 0);
+    result = 31 * result + (shrinkToFit ? 1 : 0);
+    result = 31 * result + rotation;
+    result = 31 * result + indention;
+    result = 31 * result + (locked ? 1 : 0);
+    result = 31 * result + (hidden ? 1 : 0);
+    result = 31 * result + xssfColors.hashCode();
+    return result;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ExcelStyleDescriptor)) {
+      return false;
+    }
+    ExcelStyleDescriptor other = (ExcelStyleDescriptor) obj;
+    return hash == other.hash
+        && alignment == other.alignment
+        && verticalAlignment == other.verticalAlignment
+        && borderTop == other.borderTop
+        && borderBottom == other.borderBottom
+        && borderLeft == other.borderLeft
+        && borderRight == other.borderRight
+        && topBorderColor == other.topBorderColor
+        && bottomBorderColor == other.bottomBorderColor
+        && leftBorderColor == other.leftBorderColor
+        && rightBorderColor == other.rightBorderColor
+        && fillForegroundColor == other.fillForegroundColor
+        && fillBackgroundColor == other.fillBackgroundColor
+        && fillPattern == other.fillPattern
+        && dataFormat == other.dataFormat
+        && fontIndex == other.fontIndex
+        && wrapText == other.wrapText
+        && shrinkToFit == other.shrinkToFit
+        && rotation == other.rotation
+        && indention == other.indention
+        && locked == other.locked
+        && hidden == other.hidden
+        && xssfColors.equals(other.xssfColors);
+  }
+
+  @Override
+  public String toString() {
+    return alignment + "|" + verticalAlignment + "|" + borderTop + "|" + borderBottom + "|" + borderLeft + "|"
+        + borderRight + "|" + fillForegroundColor + "|" + fillPattern + "|" + dataFormat + "|" + fontIndex + "|"
+        + wrapText + "|" + xssfColors;
+  }
+}
@@ -0,0 +1,67 @@
+package cn.com.platform.framework.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * セルスタイル設定の JFR イベント。
+ * <p>
+ * 呼び出し回数が多いため、既定では 1ms 以上かかった呼び出しだけを記録する。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@Name("cn.com.platform.framework.file.SetCellStyle")
+@Label("Excel Set Cell Style")
+@Category({"Platform", "Excel"})
+@Description("セルのスタイル（罫線等）を設定する")
+@Threshold("1 ms")
+@StackTrace(false)
+class ExcelStyleEvent extends jdk.jfr.Event {
+
+  /** 処理名。 */
+  @Label("Operation")
+  String operation;
+
+  /** シート名。 */
+  @Label("Sheet")
+  String sheet;
+
+  /** A1形式のセル位置。 */
+  @Label("Cell")
+  String cell;
+
+  /** スタイルキャッシュにヒットしたかどうか。 */
+  @Label("Style Cache Hit")
+  boolean styleCacheHit;
+
+  /** ワークブックのスタイル数。 */
+  @Label("Workbook Styles")
+  int workbookStyles;
+
+  /**
+   * 記録対象の場合のみ項目を設定してコミットする。
+   *
+   * @param strOperation 処理名
+   * @param strSheetName シート名
+   * @param strA1 A1形式のセル位置
+   * @param blnStyleCacheHit スタイルキャッシュにヒットしたかどうか
+   * @param lngWorkbookStyles ワークブックのスタイル数
+   */
+  void commit(String strOperation, String strSheetName, String strA1, boolean blnStyleCacheHit,
+      int lngWorkbookStyles) {
+    if (shouldCommit()) {
+      operation = strOperation;
+      sheet = strSheetName;
+      cell = strA1;
+      styleCacheHit = blnStyleCacheHit;
+      workbookStyles = lngWorkbookStyles;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package cn.com.platform.framework.file;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * セルスタイルの登録簿。
+ * <p>
+ * {@link ExcelStyleDescriptor} をキーにワークブックのセルスタイルを共有する。
+ * ワークブックにスタイルを追加（createCellStyle）するのは、まだ登録されていない記述子の場合だけで、
+ * 登録済みの記述子はスタイルを生成せずに既存のスタイルを返す。
+ * Excel のスタイル数の上限（64000）と styles.xml の肥大化を防ぐ。
+ * </p>
+ * <p>
+ * 返却したスタイルは複数のセルで共有されるため、呼び出し側で変更してはならない。
+ * </p>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+public class ExcelStyleRegistry {
+
+  /** ワークブック。 */
+  private final Workbook workbook;
+
+  /** 記述子 → セルスタイル。 */
+  private final Map<ExcelStyleDescriptor, CellStyle> styleMap = new HashMap<>();
+
+  /** 登録済みのスタイルを返した件数。 */
+  private int lngHitCount;
+
+  /** スタイルを生成した件数。 */
+  private int lngCreateCount;
+
+  /**
+   * ExcelStyleRegistry を構築する。
+   *
+   * @param workbook ワークブック
+   */
+  public ExcelStyleRegistry(Workbook workbook) {
+    this.workbook = workbook;
+  }
+
+  /**
+   * 元のスタイルを変更したスタイルを取得する。
+   * <p>
+   * 変更後の内容が元のスタイルと同じ場合は元のスタイルを、登録済みの場合は登録済みのスタイルを返す。
+   * どちらでもない場合だけスタイルを生成（元のスタイルを複写して変更）し、登録する。
+   * </p>
+   *
+   * @param base 元のスタイル（null の場合はワークブックの既定スタイル）
+   * @param change 変更内容
+   * @return セルスタイル
+   */
+  public CellStyle getStyle(CellStyle base, UnaryOperator<ExcelStyleDescriptor> change) {
+    CellStyle baseStyle = base != null ? base : workbook.getCellStyleAt(0);
+    ExcelStyleDescriptor baseDescriptor = ExcelStyleDescriptor.of(baseStyle);
+    // テンプレート等の既存のスタイルも登録し、同じ内容のスタイルを生成しない
+    styleMap.putIfAbsent(baseDescriptor, baseStyle);
+
+    ExcelStyleDescriptor descriptor = change.apply(baseDescriptor);
+    if (descriptor.equals(baseDescriptor)) {
+      lngHitCount++;
+      return baseStyle;
+    }
+    CellStyle style = styleMap.get(descriptor);
+    if (style != null) {
+      lngHitCount++;
+      return style;
+    }
+
+    // 元のスタイルを複写し、変更された設定だけを反映する（RGB 色等は元のスタイルから引き継ぐ）
+    style = workbook.createCellStyle();
+    style.cloneStyleFrom(baseStyle);
+    descriptor.applyTo(style, baseDescriptor, workbook.getFontAt(descriptor.getFontIndex()));
+    styleMap.put(descriptor, style);
+    lngCreateCount++;
+    return style;
+  }
+
+  /**
+   * 登録済みのスタイルを返した件数を返す。
+   *
+   * @return 件数
+   */
+  public int getHitCount() {
+    return lngHitCount;
+  }
+
+  /**
+   * スタイルを生成した件数を返す。
+   *
+   * @return 件数
+   */
+  public int getCreateCount() {
+    return lngCreateCount;
+  }
+
+  /**
+   * 登録されている記述子の件数を返す。
+   *
+   * @return 件数
+   */
+  public int size() {
+    return styleMap.size();
+  }
+}
@@ -0,0 +1,272 @@
+package cn.com.platform.framework.file;
+
+import java.util.function.UnaryOperator;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+
+/**
+ * セルスタイルの変更内容（不変）。
+ * <p>
+ * 罫線・配置・網掛け等の変更をまとめて指定する。指定しなかった項目はセルの現在のスタイルのまま。
+ * 範囲のスタイル設定（setRangeStyle）で使用し、変更後のスタイルは元のスタイルごとに一度だけ求める。
+ * </p>
+ * <pre>
+ * ExcelStyleSpec spec = new ExcelStyleSpec().border(BorderStyle.THIN).alignment(HorizontalAlignment.LEFT);
+ * </pre>
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+public final class ExcelStyleSpec implements UnaryOperator<ExcelStyleDescriptor> {
+
+  /** 罫線（上）。 */
+  private BorderStyle borderTop;
+
+  /** 罫線（下）。 */
+  private BorderStyle borderBottom;
+
+  /** 罫線（左）。 */
+  private BorderStyle borderLeft;
+
+  /** 罫線（右）。 */
+  private BorderStyle borderRight;
+
+  /** 水平方向の位置。 */
+  private HorizontalAlignment alignment;
+
+  /** 縦方向の位置。 */
+  private VerticalAlignment verticalAlignment;
+
+  /** 網掛け色（前景）。 */
+  private Short fillForegroundColor;
+
+  /** 網掛けパターン。 */
+  private FillPatternType fillPattern;
+
+  /** 表示形式のインデックス。 */
+  private Short dataFormat;
+
+  /** フォントのインデックス。 */
+  private Integer fontIndex;
+
+  /** セル内で折り返して全体を表示する。 */
+  private Boolean wrapText;
+
+  /**
+   * 変更のない ExcelStyleSpec を構築する。
+   */
+  public ExcelStyleSpec() {
+    super();
+  }
+
+  /**
+   * 罫線（上下左右）を追加した変更内容を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 変更内容
+   */
+  public ExcelStyleSpec border(BorderStyle border) {
+    ExcelStyleSpec copy = copy();
+    copy.borderTop = border;
+    copy.borderBottom = border;
+    copy.borderLeft = border;
+    copy.borderRight = border;
+    return copy;
+  }
+
+  /**
+   * 罫線（上）を追加した変更内容を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 変更内容
+   */
+  public ExcelStyleSpec borderTop(BorderStyle border) {
+    ExcelStyleSpec copy = copy();
+    copy.borderTop = border;
+    return copy;
+  }
+
+  /**
+   * 罫線（下）を追加した変更内容を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 変更内容
+   */
+  public ExcelStyleSpec borderBottom(BorderStyle border) {
+    ExcelStyleSpec copy = copy();
+    copy.borderBottom = border;
+    return copy;
+  }
+
+  /**
+   * 罫線（左）を追加した変更内容を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 変更内容
+   */
+  public ExcelStyleSpec borderLeft(BorderStyle border) {
+    ExcelStyleSpec copy = copy();
+    copy.borderLeft = border;
+    return copy;
+  }
+
+  /**
+   * 罫線（右）を追加した変更内容を返す。
+   *
+   * @param border ボーダースタイル
+   * @return 変更内容
+   */
+  public ExcelStyleSpec borderRight(BorderStyle border) {
+    ExcelStyleSpec copy = copy();
+    copy.borderRight = border;
+    return copy;
+  }
+
+  /**
+   * 水平方向の位置を追加した変更内容を返す。
+   *
+   * @param value 水平方向の位置
+   * @return 変更内容
+   */
+  public ExcelStyleSpec alignment(HorizontalAlignment value) {
+    ExcelStyleSpec copy = copy();
+    copy.alignment = value;
+    return copy;
+  }
+
+  /**
+   * 縦方向の位置を追加した変更内容を返す。
+   *
+   * @param value 縦方向の位置
+   * @return 変更内容
+   */
+  public ExcelStyleSpec verticalAlignment(VerticalAlignment value) {
+    ExcelStyleSpec copy = copy();
+    copy.verticalAlignment = value;
+    return copy;
+  }
+
+  /**
+   * 網掛け色（前景）を追加した変更内容を返す。
+   *
+   * @param color カラーインデックス
+   * @return 変更内容
+   */
+  public ExcelStyleSpec fillForegroundColor(short color) {
+    ExcelStyleSpec copy = copy();
+    copy.fillForegroundColor = color;
+    return copy;
+  }
+
+  /**
+   * 網掛けパターンを追加した変更内容を返す。
+   *
+   * @param pattern 網掛けスタイル
+   * @return 変更内容
+   */
+  public ExcelStyleSpec fillPattern(FillPatternType pattern) {
+    ExcelStyleSpec copy = copy();
+    copy.fillPattern = pattern;
+    return copy;
+  }
+
+  /**
+   * 表示形式を追加した変更内容を返す。
+   *
+   * @param format 表示形式のインデックス
+   * @return 変更内容
+   */
+  public ExcelStyleSpec dataFormat(short format) {
+    ExcelStyleSpec copy = copy();
+    copy.dataFormat = format;
+    return copy;
+  }
+
+  /**
+   * フォントを追加した変更内容を返す。
+   *
+   * @param index フォントのインデックス
+   * @return 変更内容
+   */
+  public ExcelStyleSpec fontIndex(int index) {
+    ExcelStyleSpec copy = copy();
+    copy.fontIndex = index;
+    return copy;
+  }
+
+  /**
+   * セル内の折り返しを追加した変更内容を返す。
+   *
+   * @param wrap 折り返して全体を表示する場合 true
+   * @return 変更内容
+   */
+  public ExcelStyleSpec wrapText(boolean wrap) {
+    ExcelStyleSpec copy = copy();
+    copy.wrapText = wrap;
+    return copy;
+  }
+
+  /**
+   * 指定された項目だけを変更した記述子を返す。
+   *
+   * @param descriptor 元のスタイルの記述子
+   * @return 変更後の記述子
+   */
+  @Override
+  public ExcelStyleDescriptor apply(ExcelStyleDescriptor descriptor) {
+    ExcelStyleDescriptor result = descriptor;
+    if (borderTop != null) {
+      result = result.withBorderTop(borderTop);
+    }
+    if (borderBottom != null) {
+      result = result.withBorderBottom(borderBottom);
+    }
+    if (borderLeft != null) {
+      result = result.withBorderLeft(borderLeft);
+    }
+    if (borderRight != null) {
+      result = result.withBorderRight(borderRight);
+    }
+    if (alignment != null) {
+      result = result.withAlignment(alignment);
+    }
+    if (verticalAlignment != null) {
+      result = result.withVerticalAlignment(verticalAlignment);
+    }
+    if (fillForegroundColor != null) {
+      result = result.withFillForegroundColor(fillForegroundColor);
+    }
+    if (fillPattern != null) {
+      result = result.withFillPattern(fillPattern);
+    }
+    if (dataFormat != null) {
+      result = result.withDataFormat(dataFormat);
+    }
+    if (fontIndex != null) {
+      result = result.withFontIndex(fontIndex);
+    }
+    if (wrapText != null) {
+      result = result.withWrapText(wrapText);
+    }
+    return result;
+  }
+
+  private ExcelStyleSpec copy() {
+    ExcelStyleSpec copy = new ExcelStyleSpec();
+    copy.borderTop = borderTop;
+    copy.borderBottom = borderBottom;
+    copy.borderLeft = borderLeft;
+    copy.borderRight = borderRight;
+    copy.alignment = alignment;
+    copy.verticalAlignment = verticalAlignment;
+    copy.fillForegroundColor = fillForegroundColor;
+    copy.fillPattern = fillPattern;
+    copy.dataFormat = dataFormat;
+    copy.fontIndex = fontIndex;
+    copy.wrapText = wrapText;
+    return copy;
+  }
+}
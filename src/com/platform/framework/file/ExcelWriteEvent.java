@@ -0,0 +1,51 @@
+package cn.com.platform.framework.file;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Excelファイル出力の JFR イベント。
+ *
+ * @author 唐友成
+ * @since 2026年10月17日
+ */
+@Name("cn.com.platform.framework.file.Write")
+@Label("Excel Write")
+@Category({"Platform", "Excel"})
+@Description("Excelファイルを出力する（getBytes / outputFile / writeTo）")
+@StackTrace(false)
+class ExcelWriteEvent extends jdk.jfr.Event {
+
+  /** 処理名。 */
+  @Label("Operation")
+  String operation;
+
+  /** ストリーミング（SXSSF）かどうか。 */
+  @Label("Streaming")
+  boolean streaming;
+
+  /** 出力したバイト数。 */
+  @Label("Bytes Written")
+  @DataAmount(DataAmount.BYTES)
+  long bytes;
+
+  /**
+   * 記録対象の場合のみ項目を設定してコミットする。
+   *
+   * @param strOperation 処理名
+   * @param blnStreaming ストリーミングかどうか
+   * @param lngBytes 出力したバイト数
+   */
+  void commit(String strOperation, boolean blnStreaming, long lngBytes) {
+    if (shouldCommit()) {
+      operation = strOperation;
+      streaming = blnStreaming;
+      bytes = lngBytes;
+      commit();
+    }
+  }
+}